@@ -23,29 +23,74 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.imageio.ImageIO;
 
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.ClientAnchor;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Drawing;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFCell;
-import org.apache.poi.xssf.usermodel.XSSFClientAnchor;
-import org.apache.poi.xssf.usermodel.XSSFDrawing;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.azkfw.document.tools.parser.DocumentParserBatchListener;
 import org.azkfw.document.tools.parser.dp.BasicDirectoryParser;
 import org.azkfw.document.tools.parser.dp.DirectoryParser;
+import org.azkfw.document.tools.parser.dp.DirectoryParserAggregate;
 import org.azkfw.document.tools.parser.dp.DirectoryParserDecorator;
 import org.azkfw.document.tools.parser.dp.DirectoryParserEvent;
 import org.azkfw.document.tools.parser.dp.DirectoryParserFileInfo;
-import org.azkfw.document.tools.parser.dp.DirectoryParserListener;
+import org.azkfw.document.tools.parser.dp.DirectoryParserGitIgnoreFilter;
+import org.azkfw.document.tools.parser.dp.DirectoryParserPatternFilter;
 import org.azkfw.document.tools.parser.dp.DirectoryParserPlainDecorator;
+import org.azkfw.document.tools.parser.dp.DirectoryParserSnapshot;
+import org.azkfw.document.tools.parser.dp.NioDirectoryParser;
+import org.azkfw.document.tools.writer.dp.DirectoryWriter;
+import org.azkfw.util.StringUtility;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRst;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
 
 /**
  * このクラスは、ディレクトリ構成をエクセル出力するクラスです。
  * 
+ * <p>
+ * ストリーミングモードでは、{@link SXSSFWorkbook}により一定行数を超えた行を一時ファイルへ書き出す為、
+ * ファイル数に関わらず保持する行数が一定になります。
+ * ただし、アイコンの配置情報は描画パートとしてメモリ上に保持されます。
+ * </p>
+ * <p>
+ * コンパクトモードでは、アイコン画像の代わりに記号の列とディレクトリ名の太字スタイルで種別を表現し、描画パートを生成しません。
+ * </p>
+ * <p>
+ * 接頭文字と記号は種類が少ない為、{@link XSSFWorkbook}では共有文字列の添字を一度だけ求めておき、各セルへは添字を直接設定します。
+ * 接頭文字を結合する場合、接頭文字、記号、名前を等幅フォントの1セルに出力し、1行のセル数を深さに関わらず1つにします。
+ * </p>
+ * <p>
+ * 集計を出力する場合、各ディレクトリの配下のサイズ、ファイル数、最新の更新日時をディレクトリの行の右側の列に出力します。
+ * ストリーミングモードでは出力済みの行に戻れない為、集計は「ディレクトリ集計」シートに走査の帰りがけ順で出力します。
+ * </p>
+ * <p>
+ * シートの最大行数に達した場合、続きを新しいシートに出力します。
+ * 続きのシートの先頭には、次に出力する要素の祖先のディレクトリの行を繰り返し出力し、どのディレクトリの続きかを表します。
+ * </p>
+ * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/28
+ * @version 1.0.0 2015/02/26
  * @author kawakicchi
  */
 public class DirectoryTreeDocument {
@@ -57,7 +102,26 @@ public class DirectoryTreeDocument {
 	 * 引数は次の通りです。
 	 * <ul>
 	 * <li>構成を出力するディレクトリ</li>
-	 * <li>出力エクセルファイルパス</li>
+	 * <li>出力ファイルパス。拡張子が{@code .txt}、{@code .csv}、{@code .md}、{@code .html}の場合、エクセルの代わりに{@link DirectoryWriter}で出力する</li>
+	 * <li>（任意）{@code streaming} : ストリーミングモードで出力する</li>
+	 * <li>（任意）{@code compact} : アイコン画像を使用せずに出力する</li>
+	 * <li>（任意）{@code merge} : 接頭文字、記号、名前を1セルに結合して出力する</li>
+	 * <li>（任意）{@code -font=NAME} : 結合して出力する場合の等幅フォント（既定は{@code ＭＳ ゴシック}）</li>
+	 * <li>（任意）{@code basic} : {@link java.io.File}によりディレクトリを走査する（既定はNIO）</li>
+	 * <li>（任意）{@code -parallel=N} : 走査の並列度（NIOのみ）</li>
+	 * <li>（任意）{@code -inflight=N} : 並列走査時の最大同時列挙数（NIOのみ）</li>
+	 * <li>（任意）{@code -include=PATTERN} : 対象とするファイルのパターン（複数指定可）</li>
+	 * <li>（任意）{@code -exclude=PATTERN} : 除外するファイルおよびディレクトリのパターン（複数指定可）</li>
+	 * <li>（任意）{@code -maxdepth=N} : 出力する最大の深さ</li>
+	 * <li>（任意）{@code gitignore} : {@code .gitignore}の規則で除外する</li>
+	 * <li>（任意）{@code -maxchildren=N} : 1ディレクトリで出力する最大の要素数。超えた要素は要約して出力する（NIOのみ）</li>
+	 * <li>（任意）{@code -summarydepth=N} : 展開せずに要約するディレクトリの深さ（NIOのみ）</li>
+	 * <li>（任意）{@code unsorted} : ソートせずにディレクトリの列挙順で出力する（NIOのみ）</li>
+	 * <li>（任意）{@code aggregate} : ディレクトリ毎の集計を出力する</li>
+	 * <li>（任意）{@code -maxrows=N} : 1シートに出力する最大の行数。超えた行は新しいシートに出力する</li>
+	 * <li>（任意）{@code -batch=N} : 走査から出力へまとめて渡すイベント数</li>
+	 * <li>（任意）{@code -async=N} : 走査と出力を別スレッドで行い、その間に保持するイベントのまとまりの数</li>
+	 * <li>（任意）{@code -snapshot=FILE} : 前回の列挙結果を保持するスナップショットファイル。更新されていないディレクトリは再列挙しない（NIOのみ）</li>
 	 * </ul>
 	 * </p>
 	 * 
@@ -67,25 +131,265 @@ public class DirectoryTreeDocument {
 		File directory = new File(args[0]);
 		File file = new File(args[1]);
 
-		DirectoryTreeDocument doc = new DirectoryTreeDocument();
-		doc.create(directory, file);
+		NioDirectoryParser nioParser = new NioDirectoryParser();
+		DirectoryParser parser = nioParser;
+		for (int i = 2; i < args.length; i++) {
+			if ("basic".equals(args[i])) {
+				parser = new BasicDirectoryParser();
+			}
+		}
+
+		DirectoryParserPatternFilter filter = new DirectoryParserPatternFilter();
+		parser.addFilter(filter);
+		for (int i = 2; i < args.length; i++) {
+			if (args[i].startsWith("-include=")) {
+				filter.addInclude(args[i].substring("-include=".length()));
+			} else if (args[i].startsWith("-exclude=")) {
+				filter.addExclude(args[i].substring("-exclude=".length()));
+			} else if (args[i].startsWith("-maxdepth=")) {
+				filter.setMaxDepth(Integer.parseInt(args[i].substring("-maxdepth=".length())));
+			} else if ("gitignore".equals(args[i])) {
+				parser.addFilter(new DirectoryParserGitIgnoreFilter(directory));
+			} else if (args[i].startsWith("-parallel=")) {
+				nioParser.setParallelism(Integer.parseInt(args[i].substring("-parallel=".length())));
+			} else if (args[i].startsWith("-inflight=")) {
+				nioParser.setMaxInFlightListings(Integer.parseInt(args[i].substring("-inflight=".length())));
+			} else if (args[i].startsWith("-maxchildren=")) {
+				nioParser.setMaxChildren(Integer.parseInt(args[i].substring("-maxchildren=".length())));
+			} else if (args[i].startsWith("-summarydepth=")) {
+				nioParser.setSummaryDepth(Integer.parseInt(args[i].substring("-summarydepth=".length())));
+			} else if ("unsorted".equals(args[i])) {
+				nioParser.setSorted(false);
+			} else if (args[i].startsWith("-batch=")) {
+				parser.setBatchSize(Integer.parseInt(args[i].substring("-batch=".length())));
+			} else if (args[i].startsWith("-async=")) {
+				parser.setAsynchronous(Integer.parseInt(args[i].substring("-async=".length())));
+			}
+		}
+
+		File snapshotFile = null;
+		DirectoryParserSnapshot snapshot = null;
+		for (int i = 2; i < args.length; i++) {
+			if (args[i].startsWith("-snapshot=") && parser == nioParser) {
+				snapshotFile = new File(args[i].substring("-snapshot=".length()));
+				snapshot = DirectoryParserSnapshot.load(snapshotFile);
+				nioParser.setSnapshot(snapshot);
+			}
+		}
+
+		DirectoryTreeDocument doc = new DirectoryTreeDocument(parser);
+		for (int i = 2; i < args.length; i++) {
+			if ("streaming".equals(args[i])) {
+				doc.setStreaming(true);
+			} else if ("compact".equals(args[i])) {
+				doc.setCompact(true);
+			} else if ("merge".equals(args[i])) {
+				doc.setMergePrefix(true);
+			} else if (args[i].startsWith("-font=")) {
+				doc.setMonospaceFont(args[i].substring("-font=".length()));
+			} else if (args[i].startsWith("-maxrows=")) {
+				doc.setMaxRows(Integer.parseInt(args[i].substring("-maxrows=".length())));
+			} else if ("aggregate".equals(args[i])) {
+				doc.setAggregation(true);
+			}
+		}
+		DirectoryWriter writer;
+		try {
+			writer = DirectoryWriter.newInstance(file);
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			return;
+		}
+		if (null != writer) {
+			parser.addListener(writer);
+			try {
+				parser.parse(directory);
+			} finally {
+				parser.removeListener(writer);
+				try {
+					writer.close();
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				}
+			}
+		} else {
+			doc.create(directory, file);
+		}
+
+		if (null != snapshot) {
+			System.out.println(String.format("Snapshot : listed %d / reused %d", snapshot.getListedCount(), snapshot.getReusedCount()));
+			try {
+				snapshot.save(snapshotFile);
+			} catch (IOException ex) {
+				ex.printStackTrace();
+			}
+		}
 	}
 
+	/** ストリーミングモードでメモリ上に保持する既定の行数 */
+	public static final int DEFAULT_ROW_ACCESS_WINDOW_SIZE = 100;
+
+	/** コンパクトモードのファイルを表す記号 */
+	private static final String GLYPH_FILE = "□";
+	/** コンパクトモードのディレクトリを表す記号 */
+	private static final String GLYPH_DIRECTORY = "■";
+
+	/** 1シートの既定の最大行数 */
+	public static final int DEFAULT_MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+	/** ディレクトリ構成のシート名 */
+	private static final String SHEET_NAME = "ディレクトリ構成";
+	/** ディレクトリ集計のシート名 */
+	private static final String AGGREGATE_SHEET_NAME = "ディレクトリ集計";
+
+	/** 接頭文字を結合する場合の既定のフォント */
+	public static final String DEFAULT_MONOSPACE_FONT = "ＭＳ ゴシック";
+
+	private DirectoryParser parser;
 	private DirectoryParserDecorator decorator;
-	private XSSFSheet sheet;
+	private boolean streaming;
+	private int rowAccessWindowSize;
+	private boolean compact;
+	private int maxRows;
+	private Sheet sheet;
+	private List<Sheet> sheets;
+	/** 出力中のシートの行数 */
+	private int countRow;
+	/** 深さ毎の祖先のディレクトリ */
+	private DirectoryParserFileInfo[] ancestors;
+	private Drawing patriarch;
+	private int pictureFile;
+	private int pictureDirectory;
+	private CellStyle styleDirectory;
 	private int countFile;
 	private int maxCol;
 
+	private boolean mergePrefix;
+	private String monospaceFont;
+	private CellStyle styleMonospace;
+	private CellStyle styleMonospaceDirectory;
+	private int maxDepth;
+	/** 共有文字列（{@link XSSFWorkbook}のみ） */
+	private SharedStringsTable sharedStrings;
+	/** 記号の共有文字列（{@link XSSFWorkbook}のみ） */
+	private Map<String, CTRst> glyphStrings;
+
+	private boolean aggregation;
+	private Sheet aggregateSheet;
+	private List<Sheet> aggregateSheets;
+	private CellStyle styleSize;
+	private CellStyle styleCount;
+	private CellStyle styleDate;
+	private int countAggregate;
+	/** 深さ毎のディレクトリの行 */
+	private Row[] directoryRows;
+	/** 出力待ちの集計の行 */
+	private List<Row> aggregateRows;
+	/** 出力待ちの集計 */
+	private List<DirectoryParserAggregate> aggregates;
+
 	private int offsetCol;
 	private int offsetRow;
 
 	public DirectoryTreeDocument() {
+		this(new NioDirectoryParser());
+	}
+
+	public DirectoryTreeDocument(final DirectoryParser parser) {
+		this.parser = parser;
 		decorator = new DirectoryParserPlainDecorator();
+		streaming = false;
+		rowAccessWindowSize = DEFAULT_ROW_ACCESS_WINDOW_SIZE;
+		compact = false;
+		maxRows = DEFAULT_MAX_ROWS;
+		monospaceFont = DEFAULT_MONOSPACE_FONT;
 
 		offsetCol = 0;
 		offsetRow = 0;
 	}
 
+	/**
+	 * ストリーミングモードを設定する。
+	 * 
+	 * @param streaming ストリーミングモードの場合、<code>true</code>
+	 */
+	public void setStreaming(final boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * ストリーミングモードでメモリ上に保持する行数を設定する。
+	 * 
+	 * @param size 行数
+	 */
+	public void setRowAccessWindowSize(final int size) {
+		this.rowAccessWindowSize = size;
+	}
+
+	/**
+	 * コンパクトモードを設定する。
+	 * 
+	 * @param compact アイコン画像を使用しない場合、<code>true</code>
+	 */
+	public void setCompact(final boolean compact) {
+		this.compact = compact;
+	}
+
+	/**
+	 * 1シートに出力する最大の行数を設定する。
+	 * 
+	 * <p>
+	 * 最大の行数に達した場合、続きを新しいシートに出力します。
+	 * 続きのシートの先頭に出力する祖先のディレクトリの行も、この行数に含みます。
+	 * </p>
+	 * 
+	 * @param rows 行数（2以上、{@link #DEFAULT_MAX_ROWS}以下）
+	 */
+	public void setMaxRows(final int rows) {
+		if (rows < 2 || rows > DEFAULT_MAX_ROWS) {
+			throw new IllegalArgumentException("Invalid max rows: " + rows);
+		}
+		this.maxRows = rows;
+	}
+
+	/**
+	 * 集計を設定する。
+	 * 
+	 * @param aggregation ディレクトリ毎の集計を出力する場合、<code>true</code>
+	 */
+	public void setAggregation(final boolean aggregation) {
+		this.aggregation = aggregation;
+	}
+
+	/**
+	 * 接頭文字の結合を設定する。
+	 * 
+	 * <p>
+	 * 結合する場合、アイコン画像は使用せずにコンパクトモードの記号で種別を表現します。
+	 * </p>
+	 * 
+	 * @param merge 接頭文字、記号、名前を1セルに出力する場合、<code>true</code>
+	 */
+	public void setMergePrefix(final boolean merge) {
+		this.mergePrefix = merge;
+	}
+
+	/**
+	 * 接頭文字を結合する場合のフォントを設定する。
+	 * 
+	 * <p>
+	 * 罫線の文字と全角の記号が同じ幅で表示される等幅フォントを指定します。
+	 * </p>
+	 * 
+	 * @param fontName フォント名。既定は{@link #DEFAULT_MONOSPACE_FONT}
+	 */
+	public void setMonospaceFont(final String fontName) {
+		if (StringUtility.isEmpty(fontName)) {
+			throw new IllegalArgumentException("Invalid font name: " + fontName);
+		}
+		this.monospaceFont = fontName;
+	}
+
 	private class Image {
 
 		private ByteArrayOutputStream byteArrayOut1;
@@ -112,7 +416,12 @@ public class DirectoryTreeDocument {
 		boolean result = false;
 
 		countFile = 0;
+		countRow = 0;
+		ancestors = new DirectoryParserFileInfo[16];
 		maxCol = 0;
+		maxDepth = 0;
+		sharedStrings = null;
+		glyphStrings = null;
 
 		try {
 			imgFile = new Image();
@@ -120,27 +429,133 @@ public class DirectoryTreeDocument {
 			imgFile.load(this.getClass().getResourceAsStream("/file.png"));
 			imgDirectory.load(this.getClass().getResourceAsStream("/directory.png"));
 
-			XSSFWorkbook wb = new XSSFWorkbook();
-			sheet = wb.createSheet("ディレクトリ構成");
+			Workbook wb;
+			if (streaming) {
+				SXSSFWorkbook swb = new SXSSFWorkbook(rowAccessWindowSize);
+				swb.setCompressTempFiles(true);
+				wb = swb;
+			} else {
+				wb = new XSSFWorkbook();
+			}
+			sheet = wb.createSheet(SHEET_NAME);
+			sheets = new ArrayList<Sheet>();
+			sheets.add(sheet);
+			if (mergePrefix) {
+				Font font = wb.createFont();
+				font.setFontName(monospaceFont);
+				styleMonospace = wb.createCellStyle();
+				styleMonospace.setFont(font);
+				Font fontBold = wb.createFont();
+				fontBold.setFontName(monospaceFont);
+				fontBold.setBoldweight(Font.BOLDWEIGHT_BOLD);
+				styleMonospaceDirectory = wb.createCellStyle();
+				styleMonospaceDirectory.setFont(fontBold);
+			} else if (compact) {
+				Font font = wb.createFont();
+				font.setBoldweight(Font.BOLDWEIGHT_BOLD);
+				styleDirectory = wb.createCellStyle();
+				styleDirectory.setFont(font);
+			} else {
+				patriarch = sheet.createDrawingPatriarch();
+
+				// アイコンはワークブックに一度だけ登録し、全ての行から参照する
+				pictureFile = wb.addPicture(imgFile.toByteArray(), Workbook.PICTURE_TYPE_PNG);
+				pictureDirectory = wb.addPicture(imgDirectory.toByteArray(), Workbook.PICTURE_TYPE_PNG);
+			}
+			if (!mergePrefix && wb instanceof XSSFWorkbook) {
+				sharedStrings = ((XSSFWorkbook) wb).getSharedStringSource();
+				glyphStrings = new HashMap<String, CTRst>();
+				for (String glyph : new String[] { decorator.getMiddleString(), decorator.getTerminalString(),
+						decorator.getParentEmptyString(), decorator.getParentJoinString(), GLYPH_FILE, GLYPH_DIRECTORY }) {
+					glyphStrings.put(glyph, new XSSFRichTextString(glyph).getCTRst());
+				}
+			}
+			if (aggregation) {
+				DataFormat format = wb.createDataFormat();
+				styleSize = wb.createCellStyle();
+				styleSize.setDataFormat(format.getFormat("#,##0\" B\""));
+				styleCount = wb.createCellStyle();
+				styleCount.setDataFormat(format.getFormat("#,##0\" files\""));
+				styleDate = wb.createCellStyle();
+				styleDate.setDataFormat(format.getFormat("yyyy/mm/dd hh:mm:ss"));
+
+				countAggregate = 0;
+				directoryRows = new Row[16];
+				aggregateRows = new ArrayList<Row>();
+				aggregates = new ArrayList<DirectoryParserAggregate>();
+				aggregateSheets = new ArrayList<Sheet>();
+				if (streaming) {
+					createAggregateSheet(wb);
+				}
+			}
 
-			DirectoryParser parser = new BasicDirectoryParser();
-			parser.setDecorator(decorator);
-			parser.addListener(new DirectoryParserListener() {
+			DocumentParserBatchListener<DirectoryParserEvent> listener = new DocumentParserBatchListener<DirectoryParserEvent>() {
 				@Override
-				public void documentParserCallback(final DirectoryParserEvent event) {
-					onFindFile(event);
+				public void documentParserBatchCallback(final List<DirectoryParserEvent> events) {
+					for (DirectoryParserEvent event : events) {
+						onFindFile(event);
+					}
 				}
-			});
-			parser.parse(directory);
+			};
+			parser.setDecorator(decorator);
+			parser.setAggregation(aggregation);
+			parser.addBatchListener(listener);
+			try {
+				parser.parse(directory);
+			} finally {
+				parser.removeBatchListener(listener);
+			}
 
 			// 
-			for (int col = 0; col <= maxCol; col++) {
-				sheet.setColumnWidth(offsetCol + col, 2 * 256 + 60);
+			for (Sheet s : sheets) {
+				if (mergePrefix) {
+					s.setColumnWidth(offsetCol, Math.min(255, maxDepth * 2 + 40) * 256);
+				} else {
+					for (int col = 0; col <= maxCol; col++) {
+						s.setColumnWidth(offsetCol + col, 2 * 256 + 60);
+					}
+				}
 			}
+			if (aggregation) {
+				if (null != aggregateSheet) {
+					for (Sheet s : aggregateSheets) {
+						s.setColumnWidth(0, 60 * 256);
+						for (int col = 1; col <= 3; col++) {
+							s.setColumnWidth(col, 20 * 256);
+						}
+					}
+				} else {
+					int col = offsetCol + maxCol + 1;
+					for (int i = 0; i < aggregates.size(); i++) {
+						setAggregateCells(aggregateRows.get(i), col, aggregates.get(i));
+					}
+					for (Sheet s : sheets) {
+						if (!mergePrefix) {
+							s.setColumnWidth(offsetCol + maxCol, 40 * 256);
+						}
+						for (int i = 0; i < 3; i++) {
+							s.setColumnWidth(col + i, 20 * 256);
+						}
+					}
+				}
+				aggregateSheet = null;
+				aggregateSheets = null;
+				aggregateRows = null;
+				aggregates = null;
+			}
+			sheet = null;
+			sheets = null;
+			ancestors = null;
 
 			FileOutputStream out = new FileOutputStream(destFile);
-			wb.write(out);
-			out.close();
+			try {
+				wb.write(out);
+			} finally {
+				out.close();
+				if (wb instanceof SXSSFWorkbook) {
+					((SXSSFWorkbook) wb).dispose();
+				}
+			}
 
 			// image
 			imgFile.release();
@@ -157,35 +572,185 @@ public class DirectoryTreeDocument {
 
 	private void onFindFile(final DirectoryParserEvent event) {
 		DirectoryParserFileInfo info = event.getInfo();
-		String prefix = info.getPrefix();
-		File file = info.getFile();
+		if (null != event.getAggregate()) {
+			onAggregate(info, event.getAggregate());
+			return;
+		}
 
-		XSSFRow row = sheet.createRow(offsetRow + countFile);
-		int col = 0;
-		for (int i = 0; i < prefix.length(); i++) {
-			Character c = prefix.charAt(i);
+		if (offsetRow + countRow >= maxRows) {
+			nextSheet(info);
+		}
+		Row row = createRow(info);
+		if (info.isDirectory()) {
+			if (info.getDepth() >= ancestors.length) {
+				ancestors = Arrays.copyOf(ancestors, info.getDepth() * 2);
+			}
+			ancestors[info.getDepth()] = info;
+			if (aggregation) {
+				if (info.getDepth() >= directoryRows.length) {
+					directoryRows = Arrays.copyOf(directoryRows, info.getDepth() * 2);
+				}
+				directoryRows[info.getDepth()] = row;
+			}
+		}
+		countFile++;
+	}
 
-			XSSFCell cell = row.createCell(offsetCol + col);
-			cell.setCellValue(c.toString());
+	/**
+	 * 続きを出力する新しいシートを生成する。
+	 * 
+	 * <p>
+	 * シートの先頭には、次に出力する要素の祖先のディレクトリの行を出力します。
+	 * 祖先の行が最大の行数を超える場合、最大の行数までの祖先を出力します。
+	 * </p>
+	 * 
+	 * @param info 次に出力する要素
+	 */
+	private void nextSheet(final DirectoryParserFileInfo info) {
+		sheet = sheet.getWorkbook().createSheet(String.format("%s (%d)", SHEET_NAME, sheets.size() + 1));
+		sheets.add(sheet);
+		countRow = 0;
+		if (!mergePrefix && !compact) {
+			patriarch = sheet.createDrawingPatriarch();
+		}
+		for (int depth = 0; depth < info.getDepth() && offsetRow + countRow < maxRows - 1; depth++) {
+			createRow(ancestors[depth]);
+		}
+	}
+
+	/**
+	 * 要素の行を出力する。
+	 * 
+	 * @param info 要素
+	 * @return 行
+	 */
+	private Row createRow(final DirectoryParserFileInfo info) {
+		Row row = sheet.createRow(offsetRow + countRow);
+		if (mergePrefix) {
+			StringBuilder value = new StringBuilder(info.getPrefix());
+			if (!info.isSummary()) {
+				value.append(info.isFile() ? GLYPH_FILE : GLYPH_DIRECTORY);
+			}
+			value.append(info.getName());
+			Cell cell = row.createCell(offsetCol);
+			cell.setCellValue(value.toString());
+			cell.setCellStyle(info.isDirectory() ? styleMonospaceDirectory : styleMonospace);
+
+			maxDepth = Math.max(maxDepth, info.getDepth());
+			countRow++;
+			return row;
+		}
+
+		int col = 0;
+		for (int level = 1; level <= info.getDepth(); level++) {
+			setGlyph(row, offsetCol + col, decorator.getPrefixString(info, level));
 			col++;
 		}
 
-		XSSFDrawing patriarch = sheet.createDrawingPatriarch();
-		XSSFClientAnchor anchor = new XSSFClientAnchor(0, 0, 18, 18, (short) (offsetCol + col), (offsetRow + countFile),
-				(short) (offsetCol + col + 1), (offsetRow + countFile + 1));
-		anchor.setAnchorType(XSSFClientAnchor.MOVE_DONT_RESIZE);
-		if (file.isFile()) {
-			patriarch.createPicture(anchor, sheet.getWorkbook().addPicture(imgFile.toByteArray(), HSSFWorkbook.PICTURE_TYPE_PNG));
+		if (info.isSummary()) {
+			// 要約はアイコンを出力しない
+		} else if (compact) {
+			setGlyph(row, offsetCol + col, info.isFile() ? GLYPH_FILE : GLYPH_DIRECTORY);
 		} else {
-			patriarch.createPicture(anchor, sheet.getWorkbook().addPicture(imgDirectory.toByteArray(), HSSFWorkbook.PICTURE_TYPE_PNG));
+			ClientAnchor anchor = sheet.getWorkbook().getCreationHelper().createClientAnchor();
+			anchor.setDx1(0);
+			anchor.setDy1(0);
+			anchor.setDx2(18);
+			anchor.setDy2(18);
+			anchor.setCol1(offsetCol + col);
+			anchor.setRow1(offsetRow + countRow);
+			anchor.setCol2(offsetCol + col + 1);
+			anchor.setRow2(offsetRow + countRow + 1);
+			anchor.setAnchorType(ClientAnchor.MOVE_DONT_RESIZE);
+			if (info.isFile()) {
+				patriarch.createPicture(anchor, pictureFile);
+			} else {
+				patriarch.createPicture(anchor, pictureDirectory);
+			}
 		}
 
-		XSSFCell cell = row.createCell(offsetCol + col + 1);
-		cell.setCellValue(file.getName());
+		Cell cell = row.createCell(offsetCol + col + 1);
+		cell.setCellValue(info.getName());
+		if (compact && info.isDirectory()) {
+			cell.setCellStyle(styleDirectory);
+		}
 
 		maxCol = Math.max(maxCol, col + 1);
 
-		countFile++;
+		countRow++;
+		return row;
+	}
+
+	/**
+	 * 記号のセルを出力する。
+	 * 
+	 * <p>
+	 * 共有文字列を生成済みの記号は、共有文字列へ登録した添字をセルへ直接設定し、セルの値の変換を行いません。
+	 * 共有文字列への登録は参照毎に行い、共有文字列の参照数をセル数と一致させます。
+	 * </p>
+	 * 
+	 * @param row 行
+	 * @param col 列
+	 * @param glyph 記号
+	 */
+	private void setGlyph(final Row row, final int col, final String glyph) {
+		Cell cell = row.createCell(col);
+		CTRst string = (null == glyphStrings) ? null : glyphStrings.get(glyph);
+		if (null == string) {
+			cell.setCellValue(glyph);
+		} else {
+			CTCell ct = ((XSSFCell) cell).getCTCell();
+			ct.setT(STCellType.S);
+			ct.setV(Integer.toString(sharedStrings.addEntry(string)));
+		}
+	}
+
+	private void onAggregate(final DirectoryParserFileInfo info, final DirectoryParserAggregate aggregate) {
+		if (null != aggregateSheet) {
+			if (countAggregate + 1 >= maxRows) {
+				createAggregateSheet(aggregateSheet.getWorkbook());
+			}
+			countAggregate++;
+			Row row = aggregateSheet.createRow(countAggregate);
+			row.createCell(0).setCellValue(info.getFile().getPath());
+			setAggregateCells(row, 1, aggregate);
+		} else {
+			// ディレクトリの行に出力する列は、最大の深さが確定してから決める
+			aggregateRows.add(directoryRows[info.getDepth()]);
+			aggregates.add(aggregate);
+		}
+	}
+
+	private void createAggregateSheet(final Workbook wb) {
+		if (aggregateSheets.isEmpty()) {
+			aggregateSheet = wb.createSheet(AGGREGATE_SHEET_NAME);
+		} else {
+			aggregateSheet = wb.createSheet(String.format("%s (%d)", AGGREGATE_SHEET_NAME, aggregateSheets.size() + 1));
+		}
+		aggregateSheets.add(aggregateSheet);
+		countAggregate = 0;
+
+		Row row = aggregateSheet.createRow(0);
+		row.createCell(0).setCellValue("パス");
+		row.createCell(1).setCellValue("サイズ");
+		row.createCell(2).setCellValue("ファイル数");
+		row.createCell(3).setCellValue("最終更新日時");
+	}
+
+	private void setAggregateCells(final Row row, final int col, final DirectoryParserAggregate aggregate) {
+		Cell cell = row.createCell(col);
+		cell.setCellValue(aggregate.getSize());
+		cell.setCellStyle(styleSize);
+
+		cell = row.createCell(col + 1);
+		cell.setCellValue(aggregate.getFileCount());
+		cell.setCellStyle(styleCount);
+
+		if (0 < aggregate.getLastModified()) {
+			cell = row.createCell(col + 2);
+			cell.setCellValue(new Date(aggregate.getLastModified()));
+			cell.setCellStyle(styleDate);
+		}
 	}
 
 }
@@ -21,23 +21,28 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.jar.Attributes;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
+import org.azkfw.document.tools.archive.ArchiveReader;
 import org.azkfw.document.tools.parser.ws.rsp.BasicRESTfulParser;
+import org.azkfw.document.tools.parser.ws.rsp.BytecodeRESTfulParser;
 import org.azkfw.document.tools.parser.ws.rsp.RESTfulParser;
-import org.azkfw.document.tools.parser.ws.rsp.RESTfulParserEvent;
-import org.azkfw.document.tools.parser.ws.rsp.RESTfulParserListener;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulScanCache;
+import org.azkfw.document.tools.writer.ws.rsp.RESTfulWriter;
+import org.azkfw.document.tools.writer.ws.rsp.RESTfulWriters;
 
 /**
  * このクラスは、JAX-RS構成をエクセル出力するクラスです。
  * 
+ * <p>
+ * 検出したリソースメソッドは解析と同時に{@link RESTfulWriter}で逐次出力し、解析結果をメモリ上に蓄積しません。
+ * 出力形式は出力ファイルの拡張子により決まります（{@link RESTfulWriters#newInstance(File, RESTfulParser)}）。
+ * </p>
+ * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/30
+ * @version 1.0.0 2015/02/25
  * @author kawakicchi
  */
 public class JaxRSDocument {
@@ -49,7 +54,15 @@ public class JaxRSDocument {
 	 * 引数は次の通りです。
 	 * <ul>
 	 * <li>クラスパス、jarファイルパス、warファイルパス</li>
-	 * <li>出力エクセルファイルパス</li>
+	 * <li>出力ファイルパス（{@code openapi.json}で終わる場合はOpenAPI 3文書、{@code .json}、{@code .yaml}の場合はエンドポイント一覧、それ以外はエクセル）</li>
+	 * <li>（任意）オプション
+	 * <ul>
+	 * <li>{@code bytecode}（既定） または {@code reflection} : 解析方式</li>
+	 * <li>{@code -parallel=N} : 解析の並列度</li>
+	 * <li>{@code -cache=FILE} : 解析結果のキャッシュファイル（bytecode方式のみ）</li>
+	 * <li>{@code -lib=PATTERN[,PATTERN...]} : 解析対象とするwarファイル内のライブラリ（jarファイル名のglobパターン）</li>
+	 * </ul>
+	 * </li>
 	 * </ul>
 	 * </p>
 	 * 
@@ -59,37 +72,107 @@ public class JaxRSDocument {
 		File document = new File(args[0]);
 		File destFile = new File(args[1]);
 
-		JaxRSDocument doc = new JaxRSDocument();
+		RESTfulParser parser = new BytecodeRESTfulParser();
+		for (int i = 2; i < args.length; i++) {
+			if ("reflection".equals(args[i])) {
+				parser = new BasicRESTfulParser();
+			}
+		}
+		for (int i = 2; i < args.length; i++) {
+			if (args[i].startsWith("-parallel=")) {
+				parser.setParallelism(Integer.parseInt(args[i].substring("-parallel=".length())));
+			}
+			if (args[i].startsWith("-lib=")) {
+				parser.setLibraries(args[i].substring("-lib=".length()).split(","));
+			}
+		}
+
+		File cacheFile = null;
+		RESTfulScanCache cache = null;
+		for (int i = 2; i < args.length; i++) {
+			if (args[i].startsWith("-cache=") && parser instanceof BytecodeRESTfulParser) {
+				cacheFile = new File(args[i].substring("-cache=".length()));
+				cache = RESTfulScanCache.load(cacheFile);
+				((BytecodeRESTfulParser) parser).setCache(cache);
+			}
+		}
+
+		JaxRSDocument doc = new JaxRSDocument(parser);
 		doc.create(document, destFile);
+
+		if (null != cache) {
+			System.out.println(String.format("Scan cache : hit %d / miss %d", cache.getHitCount(), cache.getMissCount()));
+			try {
+				cache.save(cacheFile);
+			} catch (IOException ex) {
+				ex.printStackTrace();
+			}
+		}
 	}
 
-	public void create(final File document, final File destFile) {
-		RESTfulParser parser = new BasicRESTfulParser();
-		parser.addListener(new RESTfulParserListener() {
-			@Override
-			public void documentParserCallback(final RESTfulParserEvent event) {
+	private RESTfulParser parser;
+
+	public JaxRSDocument() {
+		this(new BytecodeRESTfulParser());
+	}
+
+	public JaxRSDocument(final RESTfulParser parser) {
+		this.parser = parser;
+	}
+
+	public boolean create(final File document, final File destFile) {
+		boolean result = false;
+		try {
+			RESTfulWriter writer = RESTfulWriters.newInstance(destFile, parser);
+			parser.addListener(writer);
+			try {
+				parser.parse(document);
+			} finally {
+				parser.removeListener(writer);
+				writer.close();
 			}
-		});
-		parser.parse(document);
+			result = true;
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+		return result;
 	}
 
 	public static void main2(final String[] args) throws IOException, ClassNotFoundException {
 
-		JarFile jarFile = new JarFile(args[0]);
+		ArchiveReader jarFile = ArchiveReader.open(new File(args[0]));
+		try {
+			Manifest manifest = getManifest(jarFile); //マニフェストの取得
+			// jarファイル内のファイルとディレクトリを表示
+			printEntries(jarFile);
 
-		Manifest manifest = jarFile.getManifest(); //マニフェストの取得
-		// jarファイル内のファイルとディレクトリを表示
-		printEntries(jarFile);
+			// マニフェストの内容を表示
+			printManifestAttributes(manifest);
 
-		// マニフェストの内容を表示
-		printManifestAttributes(manifest);
+			// jarファイル内のファイルを読み込む
+			printFile(jarFile, "META-INF/MANIFEST.MF");
 
-		// jarファイル内のファイルを読み込む
-		printFile(jarFile, "META-INF/MANIFEST.MF");
+			// マニフェストの属性取得
+			String className = getManifestAttribute(manifest, "JarCall-Class");
+			System.out.println("[JarCall-Class]=[" + className + "]");
+		} finally {
+			jarFile.close();
+		}
+	}
 
-		// マニフェストの属性取得
-		String className = getManifestAttribute(manifest, "JarCall-Class");
-		System.out.println("[JarCall-Class]=[" + className + "]");
+	/**
+	 * jarファイルのマニフェストを取得する
+	 * 
+	 * @param jarFile jarファイル
+	 * @return マニフェスト
+	 * @throws IOException
+	 */
+	private static Manifest getManifest(final ArchiveReader jarFile) throws IOException {
+		int index = jarFile.indexOf("META-INF/MANIFEST.MF");
+		if (-1 == index) {
+			return new Manifest();
+		}
+		return new Manifest(jarFile.getInputStream(index));
 	}
 
 	/**
@@ -97,11 +180,10 @@ public class JaxRSDocument {
 	 * 
 	 * @param jarFile jarファイル
 	 */
-	private static void printEntries(JarFile jarFile) {
-		for (Enumeration<JarEntry> e = jarFile.entries(); e.hasMoreElements();) {
-			JarEntry entry = e.nextElement();
-			String dir = entry.isDirectory() ? "D" : "F";
-			System.out.printf("[%s]%s%n", dir, entry.getName());
+	private static void printEntries(ArchiveReader jarFile) {
+		for (int i = 0; i < jarFile.size(); i++) {
+			String dir = jarFile.isDirectory(i) ? "D" : "F";
+			System.out.printf("[%s]%s%n", dir, jarFile.getName(i));
 		}
 	}
 
@@ -126,9 +208,12 @@ public class JaxRSDocument {
 	 * @param name ファイル名
 	 * @throws IOException
 	 */
-	private static void printFile(JarFile jarFile, String name) throws IOException {
-		JarEntry entry = jarFile.getJarEntry(name);
-		BufferedReader reader = new BufferedReader(new InputStreamReader(jarFile.getInputStream(entry)));
+	private static void printFile(ArchiveReader jarFile, String name) throws IOException {
+		int index = jarFile.indexOf(name);
+		if (-1 == index) {
+			return;
+		}
+		BufferedReader reader = new BufferedReader(new InputStreamReader(jarFile.getInputStream(index)));
 		String line;
 		while (null != (line = reader.readLine())) {
 			System.out.println(line);
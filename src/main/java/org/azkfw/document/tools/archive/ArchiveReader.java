@@ -0,0 +1,518 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.archive;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * このクラスは、アーカイブ(jar/war)のセントラルディレクトリを直接読み込むクラスです。
+ *
+ * <p>
+ * ファイルはメモリマップし、セントラルディレクトリはエントリ毎のオブジェクトを生成せずにプリミティブ配列の索引として保持します。
+ * エントリ名は必要になるまでデコードしません。無圧縮のエントリはコピーせずにバッファのスライスとして、 圧縮されたエントリは展開したバッファとして返します。
+ * 展開したデータはセントラルディレクトリのCRC-32と照合し、途中で切れたデータや破損したデータは例外とします。
+ * </p>
+ * <p>
+ * 読み込み処理はスレッドセーフです。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public final class ArchiveReader implements Closeable {
+
+	/** 無圧縮 */
+	public static final int STORED = 0;
+	/** Deflate圧縮 */
+	public static final int DEFLATED = 8;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_SIGNATURE = 0x06054b50;
+	private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+	private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+
+	private static final int END_LENGTH = 22;
+	private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+	private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+	private ByteBuffer buffer;
+
+	private int count;
+	private int[] nameOffsets;
+	private int[] nameLengths;
+	private int[] nameHashes;
+	private int[] methods;
+	private int[] crcs;
+	private long[] compressedSizes;
+	private long[] sizes;
+	private long[] headerOffsets;
+
+	private int[] table;
+
+	private final Deque<Inflater> inflaters;
+	/** 閉じた場合、<code>true</code>（{@link #inflaters}で同期する） */
+	private boolean closed;
+
+	/**
+	 * アーカイブファイルをメモリマップして開く。
+	 *
+	 * @param file アーカイブファイル
+	 * @return リーダー
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public static ArchiveReader open(final File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			long length = channel.size();
+			if (Integer.MAX_VALUE < length) {
+				throw new IOException("Archive too large: " + file.getAbsolutePath());
+			}
+			return new ArchiveReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, length));
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * <p>
+	 * ネストしたアーカイブを読み込む場合など、任意のバッファから生成します。
+	 * </p>
+	 *
+	 * @param buffer アーカイブ全体のバイト列（positionからlimitまで）
+	 * @throws IOException アーカイブの形式が不正な場合
+	 */
+	public ArchiveReader(final ByteBuffer buffer) throws IOException {
+		this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		inflaters = new ArrayDeque<Inflater>();
+		try {
+			readCentralDirectory();
+		} catch (IndexOutOfBoundsException ex) {
+			throw new IOException("Invalid archive.", ex);
+		}
+	}
+
+	/**
+	 * エントリ数を取得する。
+	 *
+	 * @return エントリ数
+	 */
+	public int size() {
+		return count;
+	}
+
+	public String getName(final int index) {
+		byte[] bytes = new byte[nameLengths[index]];
+		ByteBuffer b = buffer.duplicate();
+		b.position(nameOffsets[index]);
+		b.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	public boolean isDirectory(final int index) {
+		int length = nameLengths[index];
+		return 0 < length && '/' == buffer.get(nameOffsets[index] + length - 1);
+	}
+
+	/**
+	 * エントリ名が指定したバイト列で始まるか判断する。
+	 *
+	 * @param index インデックス
+	 * @param prefix UTF-8のバイト列
+	 * @return 始まる場合、<code>true</code>
+	 */
+	public boolean startsWith(final int index, final byte[] prefix) {
+		return nameLengths[index] >= prefix.length && equals(nameOffsets[index], prefix);
+	}
+
+	/**
+	 * エントリ名が指定したバイト列で終わるか判断する。
+	 *
+	 * @param index インデックス
+	 * @param suffix UTF-8のバイト列
+	 * @return 終わる場合、<code>true</code>
+	 */
+	public boolean endsWith(final int index, final byte[] suffix) {
+		int length = nameLengths[index];
+		return length >= suffix.length && equals(nameOffsets[index] + length - suffix.length, suffix);
+	}
+
+	public int getMethod(final int index) {
+		return methods[index];
+	}
+
+	/**
+	 * エントリのCRC-32を取得する。
+	 *
+	 * @param index インデックス
+	 * @return CRC-32
+	 */
+	public long getCrc(final int index) {
+		return crcs[index] & 0xFFFFFFFFL;
+	}
+
+	public long getCompressedSize(final int index) {
+		return compressedSizes[index];
+	}
+
+	public long getSize(final int index) {
+		return sizes[index];
+	}
+
+	/**
+	 * エントリのインデックスを検索する。
+	 *
+	 * @param name エントリ名
+	 * @return インデックス。存在しない場合は{@code -1}
+	 */
+	public int indexOf(final String name) {
+		byte[] bytes = name.getBytes(UTF8);
+		int hash = hash(bytes);
+		int mask = table.length - 1;
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			int index = table[slot] - 1;
+			if (-1 == index) {
+				return -1;
+			}
+			if (nameHashes[index] == hash && nameLengths[index] == bytes.length && equals(nameOffsets[index], bytes)) {
+				return index;
+			}
+		}
+	}
+
+	/**
+	 * エントリのデータを読み込む。
+	 *
+	 * <p>
+	 * 無圧縮のエントリはアーカイブのバッファを共有する読み込み専用のスライスを返します。
+	 * </p>
+	 *
+	 * @param index インデックス
+	 * @return データ
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public ByteBuffer read(final int index) throws IOException {
+		int offset = getDataOffset(index);
+		long compressedSize = compressedSizes[index];
+		long size = sizes[index];
+		if (Integer.MAX_VALUE < size || offset + compressedSize > buffer.limit()) {
+			throw new IOException("Invalid entry: " + getName(index));
+		}
+
+		if (STORED == methods[index]) {
+			ByteBuffer b = buffer.duplicate();
+			b.limit(offset + (int) compressedSize);
+			b.position(offset);
+			return b.slice().order(ByteOrder.BIG_ENDIAN).asReadOnlyBuffer();
+		} else if (DEFLATED == methods[index]) {
+			byte[] data = inflate(offset, (int) compressedSize, (int) size);
+			CRC32 crc = new CRC32();
+			crc.update(data);
+			if (crc.getValue() != getCrc(index)) {
+				throw new IOException("CRC mismatch: " + getName(index));
+			}
+			return ByteBuffer.wrap(data);
+		}
+		throw new IOException("Unsupported compression method: " + methods[index]);
+	}
+
+	/**
+	 * エントリのデータをストリームとして取得する。
+	 *
+	 * @param index インデックス
+	 * @return ストリーム
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public InputStream getInputStream(final int index) throws IOException {
+		return toInputStream(read(index));
+	}
+
+	/**
+	 * バッファをストリームとして読み込む。
+	 *
+	 * @param buffer バッファ（positionからlimitまで）
+	 * @return ストリーム
+	 */
+	public static InputStream toInputStream(final ByteBuffer buffer) {
+		final ByteBuffer b = buffer.duplicate();
+		return new InputStream() {
+			@Override
+			public int read() {
+				return b.hasRemaining() ? (b.get() & 0xFF) : -1;
+			}
+
+			@Override
+			public int read(final byte[] bytes, final int off, final int len) {
+				if (!b.hasRemaining()) {
+					return -1;
+				}
+				int size = Math.min(len, b.remaining());
+				b.get(bytes, off, size);
+				return size;
+			}
+
+			@Override
+			public int available() {
+				return b.remaining();
+			}
+		};
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (inflaters) {
+			closed = true;
+			for (Inflater inflater : inflaters) {
+				inflater.end();
+			}
+			inflaters.clear();
+		}
+		// マップしたバッファはGCにより解放される
+		buffer = null;
+	}
+
+	private void readCentralDirectory() throws IOException {
+		int limit = buffer.limit();
+		int end = -1;
+		for (int i = limit - END_LENGTH; i >= Math.max(0, limit - END_LENGTH - MAX_COMMENT_LENGTH); i--) {
+			if (END_SIGNATURE == buffer.getInt(i)) {
+				end = i;
+				break;
+			}
+		}
+		if (-1 == end) {
+			throw new IOException("End of central directory not found.");
+		}
+
+		long total = buffer.getShort(end + 10) & 0xFFFF;
+		long offset = buffer.getInt(end + 16) & 0xFFFFFFFFL;
+		if (0xFFFF == total || ZIP64_MAGIC == offset) {
+			int locator = end - 20;
+			if (0 <= locator && ZIP64_LOCATOR_SIGNATURE == buffer.getInt(locator)) {
+				long zip64End = buffer.getLong(locator + 8);
+				if (zip64End > limit - 56 || ZIP64_END_SIGNATURE != buffer.getInt((int) zip64End)) {
+					throw new IOException("Invalid zip64 end of central directory.");
+				}
+				total = buffer.getLong((int) zip64End + 32);
+				offset = buffer.getLong((int) zip64End + 48);
+			}
+		}
+		if (Integer.MAX_VALUE < total || offset > limit) {
+			throw new IOException("Invalid central directory.");
+		}
+
+		count = (int) total;
+		nameOffsets = new int[count];
+		nameLengths = new int[count];
+		nameHashes = new int[count];
+		methods = new int[count];
+		crcs = new int[count];
+		compressedSizes = new long[count];
+		sizes = new long[count];
+		headerOffsets = new long[count];
+
+		int capacity = 16;
+		while (capacity < count * 2) {
+			capacity <<= 1;
+		}
+		table = new int[capacity];
+		int mask = capacity - 1;
+
+		int position = (int) offset;
+		for (int i = 0; i < count; i++) {
+			if (CENTRAL_HEADER_SIGNATURE != buffer.getInt(position)) {
+				throw new IOException("Invalid central directory header.");
+			}
+			int nameLength = buffer.getShort(position + 28) & 0xFFFF;
+			int extraLength = buffer.getShort(position + 30) & 0xFFFF;
+			int commentLength = buffer.getShort(position + 32) & 0xFFFF;
+
+			methods[i] = buffer.getShort(position + 10) & 0xFFFF;
+			crcs[i] = buffer.getInt(position + 16);
+			compressedSizes[i] = buffer.getInt(position + 20) & 0xFFFFFFFFL;
+			sizes[i] = buffer.getInt(position + 24) & 0xFFFFFFFFL;
+			headerOffsets[i] = buffer.getInt(position + 42) & 0xFFFFFFFFL;
+			nameOffsets[i] = position + 46;
+			nameLengths[i] = nameLength;
+
+			if (ZIP64_MAGIC == sizes[i] || ZIP64_MAGIC == compressedSizes[i] || ZIP64_MAGIC == headerOffsets[i]) {
+				readZip64Extra(i, position + 46 + nameLength, extraLength);
+			}
+
+			int hash = hash(nameOffsets[i], nameLength);
+			nameHashes[i] = hash;
+			int slot = hash & mask;
+			while (0 != table[slot]) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = i + 1;
+
+			position += 46 + nameLength + extraLength + commentLength;
+		}
+	}
+
+	private void readZip64Extra(final int index, final int offset, final int length) {
+		int position = offset;
+		int end = offset + length;
+		while (position + 4 <= end) {
+			int id = buffer.getShort(position) & 0xFFFF;
+			int size = buffer.getShort(position + 2) & 0xFFFF;
+			if (0x0001 == id) {
+				int p = position + 4;
+				if (ZIP64_MAGIC == sizes[index]) {
+					sizes[index] = buffer.getLong(p);
+					p += 8;
+				}
+				if (ZIP64_MAGIC == compressedSizes[index]) {
+					compressedSizes[index] = buffer.getLong(p);
+					p += 8;
+				}
+				if (ZIP64_MAGIC == headerOffsets[index]) {
+					headerOffsets[index] = buffer.getLong(p);
+				}
+				return;
+			}
+			position += 4 + size;
+		}
+	}
+
+	private int getDataOffset(final int index) throws IOException {
+		long header = headerOffsets[index];
+		if (header > buffer.limit() - 30 || LOCAL_HEADER_SIGNATURE != buffer.getInt((int) header)) {
+			throw new IOException("Invalid local header: " + getName(index));
+		}
+		int nameLength = buffer.getShort((int) header + 26) & 0xFFFF;
+		int extraLength = buffer.getShort((int) header + 28) & 0xFFFF;
+		return (int) header + 30 + nameLength + extraLength;
+	}
+
+	private byte[] inflate(final int offset, final int compressedSize, final int size) throws IOException {
+		byte[] input = null;
+		int inputOffset = 0;
+		if (buffer.hasArray()) {
+			input = buffer.array();
+			inputOffset = buffer.arrayOffset() + offset;
+		} else {
+			input = new byte[compressedSize];
+			ByteBuffer b = buffer.duplicate();
+			b.position(offset);
+			b.get(input);
+		}
+
+		byte[] output = new byte[size];
+		Inflater inflater = getInflater();
+		try {
+			inflater.setInput(input, inputOffset, compressedSize);
+			int length = 0;
+			boolean padded = false;
+			while (length < size) {
+				int n = inflater.inflate(output, length, size - length);
+				if (0 == n) {
+					if (inflater.finished() || inflater.needsDictionary()) {
+						break;
+					}
+					if (inflater.needsInput()) {
+						if (padded) {
+							// ダミーバイトを渡しても入力が不足する場合、データが途中で切れている
+							break;
+						}
+						// nowrapモードでは、全ての入力を渡した後に終端のダミーバイトが1つ必要な場合がある
+						inflater.setInput(new byte[1]);
+						padded = true;
+					}
+				}
+				length += n;
+			}
+			if (length != size) {
+				throw new IOException("Truncated compressed data.");
+			}
+		} catch (DataFormatException ex) {
+			throw new IOException("Invalid compressed data.", ex);
+		} finally {
+			releaseInflater(inflater);
+		}
+		return output;
+	}
+
+	private Inflater getInflater() {
+		synchronized (inflaters) {
+			Inflater inflater = inflaters.poll();
+			if (null != inflater) {
+				return inflater;
+			}
+		}
+		return new Inflater(true);
+	}
+
+	private void releaseInflater(final Inflater inflater) {
+		synchronized (inflaters) {
+			// 展開中に閉じられた場合はプールへ戻さずに解放する
+			if (closed) {
+				inflater.end();
+				return;
+			}
+			inflater.reset();
+			inflaters.push(inflater);
+		}
+	}
+
+	private boolean equals(final int offset, final byte[] bytes) {
+		for (int i = 0; i < bytes.length; i++) {
+			if (bytes[i] != buffer.get(offset + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int hash(final int offset, final int length) {
+		int hash = 0;
+		for (int i = 0; i < length; i++) {
+			hash = 31 * hash + buffer.get(offset + i);
+		}
+		return hash;
+	}
+
+	private static int hash(final byte[] bytes) {
+		int hash = 0;
+		for (byte b : bytes) {
+			hash = 31 * hash + b;
+		}
+		return hash;
+	}
+}
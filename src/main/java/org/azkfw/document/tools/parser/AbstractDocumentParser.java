@@ -18,49 +18,235 @@
 package org.azkfw.document.tools.parser;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.azkfw.lang.LoggingObject;
 
 /**
+ * このクラスは、ドキュメント解析の基底クラスです。
+ * 
+ * <p>
+ * イベントは一括通知件数毎に変更できないリストにまとめて通知します。 イベント毎のリスナーは{@link DocumentParserListenerAdapter}で包み、リスト内のイベントを順に通知します。
+ * 一括通知件数の既定は1の為、既定ではイベントの発生毎に通知します。
+ * </p>
+ * <p>
+ * 既定ではイベントを解析スレッド上でリスナーへ通知します。 非同期通知を設定した場合、まとめたイベントを有限のキューに格納し、通知用のスレッドからリスナーへ通知する為、
+ * 解析と通知の処理が並行して動作します。 この場合、イベントは通知後に変更されない（再利用しない）必要があります。
+ * </p>
+ * <p>
+ * リスナーの一覧はコピーオンライトで保持する為、通知中でもリスナーの追加、削除が待機しません。
+ * </p>
+ * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/30
+ * @version 1.0.0 2015/02/26
  * @author kawakicchi
  */
 public abstract class AbstractDocumentParser<DOCUMENT, EVENT, LISTENER extends DocumentParserListener<EVENT>> extends LoggingObject implements
 		DocumentParser<DOCUMENT, EVENT, LISTENER> {
 
-	private List<LISTENER> listeners;
+	/** 解析終了を表すキューの要素 */
+	private static final Object END = new Object();
+
+	private final List<DocumentParserBatchListener<EVENT>> listeners;
+
+	private int batchSize;
+
+	private int queueCapacity;
+
+	private DocumentParserBackPressure backPressure;
+
+	private final AtomicLong droppedCount;
+
+	/** 通知待ちのイベント */
+	private List<EVENT> batch;
+
+	private BlockingQueue<Object> queue;
+
+	/** 通知用スレッドでリスナーが投げた例外 */
+	private volatile Throwable failure;
 
 	public AbstractDocumentParser() {
-		listeners = new ArrayList<LISTENER>();
+		listeners = new CopyOnWriteArrayList<DocumentParserBatchListener<EVENT>>();
+		batchSize = 1;
+		queueCapacity = 0;
+		backPressure = DocumentParserBackPressure.BLOCK;
+		droppedCount = new AtomicLong();
 	}
 
 	@Override
 	public final void addListener(LISTENER listener) {
-		synchronized (listeners) {
-			listeners.add(listener);
-		}
+		listeners.add(new DocumentParserListenerAdapter<EVENT>(listener));
 	}
 
 	@Override
 	public final void removeListener(LISTENER listener) {
-		synchronized (listeners) {
-			listeners.remove(listener);
+		for (DocumentParserBatchListener<EVENT> l : listeners) {
+			if (l instanceof DocumentParserListenerAdapter && ((DocumentParserListenerAdapter<EVENT>) l).getListener() == listener) {
+				listeners.remove(l);
+				break;
+			}
 		}
 	}
 
+	@Override
+	public final void addBatchListener(final DocumentParserBatchListener<EVENT> listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public final void removeBatchListener(final DocumentParserBatchListener<EVENT> listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public final void setBatchSize(final int size) {
+		this.batchSize = Math.max(1, size);
+	}
+
+	@Override
+	public final void setAsynchronous(final int capacity) {
+		this.queueCapacity = capacity;
+	}
+
+	@Override
+	public final void setBackPressure(final DocumentParserBackPressure backPressure) {
+		this.backPressure = backPressure;
+	}
+
+	/**
+	 * 非同期通知で破棄したイベント数を取得する。
+	 * 
+	 * @return イベント数
+	 */
+	public final long getDroppedCount() {
+		return droppedCount.get();
+	}
+
 	protected final void callListener(EVENT event) {
-		synchronized (listeners) {
-			for (LISTENER listener : listeners) {
-				listener.documentParserCallback(event);
+		if (1 == batchSize) {
+			flush(Collections.singletonList(event));
+			return;
+		}
+		if (null == batch) {
+			batch = new ArrayList<EVENT>(batchSize);
+		}
+		batch.add(event);
+		if (batch.size() >= batchSize) {
+			flush();
+		}
+	}
+
+	/**
+	 * 通知待ちのイベントを通知する。
+	 */
+	private void flush() {
+		if (null != batch && !batch.isEmpty()) {
+			List<EVENT> events = Collections.unmodifiableList(batch);
+			batch = null;
+			flush(events);
+		}
+	}
+
+	private void flush(final List<EVENT> events) {
+		if (null == queue) {
+			dispatch(events);
+			return;
+		}
+
+		if (null != failure) {
+			throw new IllegalStateException("Listener failed.", failure);
+		}
+		switch (backPressure) {
+		case DROP:
+			if (!queue.offer(events)) {
+				droppedCount.addAndGet(events.size());
+			}
+			break;
+		case ABORT:
+			if (!queue.offer(events)) {
+				throw new IllegalStateException("Listener queue is full.");
 			}
+			break;
+		default:
+			try {
+				queue.put(events);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted.", ex);
+			}
+			break;
+		}
+	}
+
+	private void dispatch(final List<EVENT> events) {
+		for (DocumentParserBatchListener<EVENT> listener : listeners) {
+			listener.documentParserBatchCallback(events);
 		}
 	}
 
 	@Override
 	public final void parse(DOCUMENT document) {
-		doParse(document);
+		batch = null;
+		if (0 >= queueCapacity) {
+			doParse(document);
+			flush();
+			return;
+		}
+
+		queue = new ArrayBlockingQueue<Object>(queueCapacity);
+		failure = null;
+		droppedCount.set(0);
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public void run() {
+				try {
+					for (Object element = queue.take(); END != element; element = queue.take()) {
+						if (null == failure) {
+							try {
+								dispatch((List<EVENT>) element);
+							} catch (Throwable ex) {
+								// Errorの場合も以降のイベントは通知せずに読み捨て、解析スレッドを待機させない
+								failure = ex;
+							}
+						}
+					}
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}, getClass().getSimpleName() + "-dispatcher");
+		thread.setDaemon(true);
+		thread.start();
+
+		try {
+			doParse(document);
+			flush();
+		} finally {
+			batch = null;
+			try {
+				queue.put(END);
+				thread.join();
+			} catch (InterruptedException ex) {
+				thread.interrupt();
+				Thread.currentThread().interrupt();
+			}
+			queue = null;
+			// 通知用のスレッドで発生したErrorは、解析スレッドの例外より優先して呼び出し元へ伝える
+			if (failure instanceof Error) {
+				throw (Error) failure;
+			}
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (null != failure) {
+			throw new IllegalStateException("Listener failed.", failure);
+		}
 	}
 
 	protected abstract void doInitialize();
@@ -22,7 +22,7 @@ package org.azkfw.document.tools.parser;
  * このインターフェースは、ドキュメント解析機能を定義する為のインターフェースです。
  * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/30
+ * @version 1.0.0 2015/02/20
  * @author kawakicchi
  */
 public interface DocumentParser<DOCUMENT, EVENT, LISTENER extends DocumentParserListener<EVENT>> {
@@ -32,4 +32,38 @@ public interface DocumentParser<DOCUMENT, EVENT, LISTENER extends DocumentParser
 	public void addListener(final LISTENER listener);
 
 	public void removeListener(final LISTENER listener);
+
+	/**
+	 * まとめてイベントを受け取るリスナーを追加する。
+	 * 
+	 * @param listener リスナー
+	 */
+	public void addBatchListener(final DocumentParserBatchListener<EVENT> listener);
+
+	public void removeBatchListener(final DocumentParserBatchListener<EVENT> listener);
+
+	/**
+	 * 一括通知件数を設定する。
+	 * 
+	 * <p>
+	 * イベントをこの件数毎にまとめて通知します。 解析の終了時には件数に満たない残りのイベントを通知します。
+	 * </p>
+	 * 
+	 * @param size 件数
+	 */
+	public void setBatchSize(final int size);
+
+	/**
+	 * 非同期通知を設定する。
+	 * 
+	 * @param capacity 通知待ちのイベントを一括通知件数毎に保持するキューの容量。0以下の場合は解析スレッド上で通知する
+	 */
+	public void setAsynchronous(final int capacity);
+
+	/**
+	 * 非同期通知でキューが満杯の場合の動作を設定する。
+	 * 
+	 * @param backPressure 動作
+	 */
+	public void setBackPressure(final DocumentParserBackPressure backPressure);
 }
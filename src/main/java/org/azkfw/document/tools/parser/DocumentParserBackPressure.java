@@ -0,0 +1,37 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser;
+
+/**
+ * この列挙型は、非同期通知でイベントのキューが満杯の場合の動作を定義する列挙型です。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/19
+ * @author kawakicchi
+ */
+public enum DocumentParserBackPressure {
+
+	/** キューに空きができるまで解析を待機する */
+	BLOCK,
+
+	/** イベントを破棄して解析を継続する */
+	DROP,
+
+	/** 解析を中断する */
+	ABORT;
+}
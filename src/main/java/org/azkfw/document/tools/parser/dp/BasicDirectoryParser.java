@@ -18,6 +18,7 @@
 package org.azkfw.document.tools.parser.dp;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -29,17 +30,24 @@ import org.azkfw.document.tools.parser.AbstractDocumentParser;
  * このクラスは、標準のディレクトリ解析を行うクラスです。
  * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/28
+ * @version 1.0.0 2015/02/19
  * @author kawakicchi
  */
 public class BasicDirectoryParser extends AbstractDocumentParser<File, DirectoryParserEvent, DirectoryParserListener> implements DirectoryParser {
 
-	private DirectoryParserEvent event;
-
 	private DirectoryParserDecorator decorator;
 
+	private DirectoryParserLevelStack levels;
+
+	private List<DirectoryParserFilter> filters;
+
+	private Path root;
+
+	private boolean aggregation;
+
 	public BasicDirectoryParser() {
-		event = new DirectoryParserEvent(this);
+		levels = new DirectoryParserLevelStack();
+		filters = new ArrayList<DirectoryParserFilter>();
 	}
 
 	@Override
@@ -47,6 +55,16 @@ public class BasicDirectoryParser extends AbstractDocumentParser<File, Directory
 		this.decorator = decorator;
 	}
 
+	@Override
+	public void addFilter(final DirectoryParserFilter filter) {
+		filters.add(filter);
+	}
+
+	@Override
+	public void setAggregation(final boolean aggregation) {
+		this.aggregation = aggregation;
+	}
+
 	@Override
 	protected void doInitialize() {
 
@@ -63,51 +81,74 @@ public class BasicDirectoryParser extends AbstractDocumentParser<File, Directory
 			decorator = new DirectoryParserPlainDecorator();
 		}
 
-		nest(directory, "");
+		root = directory.toPath();
+		nest(directory, null);
 	}
 
-	private void nest(final File file, final String prefix) {
-		// TODO: フィルター処理
-		/*
-		 * if (file.getName().startsWith(".") ||
-		 * "target".equals(file.getName())) { return; }
-		 */
-		DirectoryParserFileInfo fi = new DirectoryParserFileInfo(file, prefix);
-		event.setInfo(fi);
-		callListener(event);
+	/**
+	 * 要素を通知し、ディレクトリの場合は配下を走査する。
+	 * 
+	 * @param file ファイル
+	 * @param parent 親ディレクトリの集計。集計しない場合は<code>null</code>
+	 */
+	private void nest(final File file, final DirectoryParserAggregate parent) {
+		DirectoryParserFileInfo fi = new DirectoryParserFileInfo(file, levels, decorator);
+		callListener(new DirectoryParserEvent(this, fi));
+		if (null != parent) {
+			parent.add(fi);
+		}
 
 		if (file.isFile()) {
 
 		} else if (file.isDirectory()) {
-			List<File> files = sort(file.listFiles());
-			for (int i = 0; i < files.size(); i++) {
-
-				String bufPrefix = prefix;
-				if (bufPrefix.endsWith(decorator.getMiddleString())) {
-					bufPrefix = bufPrefix.substring(0, bufPrefix.length() - 1) + decorator.getParentJoinString();
-				} else if (bufPrefix.endsWith(decorator.getTerminalString())) {
-					bufPrefix = bufPrefix.substring(0, bufPrefix.length() - 1) + decorator.getParentEmptyString();
-				}
-				if (i < files.size() - 1) {
-					bufPrefix += decorator.getMiddleString();
-				} else {
-					bufPrefix += decorator.getTerminalString();
+			Path path = root.relativize(file.toPath());
+			int depth = levels.getDepth();
+			for (DirectoryParserFilter filter : filters) {
+				if (!filter.descend(path, depth)) {
+					return;
 				}
+			}
 
+			DirectoryParserAggregate aggregate = (aggregation) ? new DirectoryParserAggregate() : null;
+			List<File> files = sort(filter(file.listFiles(), depth + 1));
+			for (int i = 0; i < files.size(); i++) {
 				File f = files.get(i);
 
-				nest(f, bufPrefix);
+				levels.push(i == files.size() - 1);
+				nest(f, aggregate);
+				levels.pop();
+			}
+
+			if (null != aggregate) {
+				callListener(new DirectoryParserEvent(this, fi, aggregate));
+				if (null != parent) {
+					parent.add(aggregate);
+				}
 			}
 		} else {
 
 		}
 	}
 
-	private List<File> sort(final File[] files) {
+	private List<File> filter(final File[] files, final int depth) {
 		List<File> list = new ArrayList<File>();
 		for (File f : files) {
-			list.add(f);
+			boolean accept = true;
+			for (DirectoryParserFilter filter : filters) {
+				if (!filter.accept(root.relativize(f.toPath()), f.isDirectory(), depth)) {
+					accept = false;
+					break;
+				}
+			}
+			if (accept) {
+				list.add(f);
+			}
 		}
+		return list;
+	}
+
+	private List<File> sort(final List<File> files) {
+		List<File> list = new ArrayList<File>(files);
 
 		Collections.sort(list, new Comparator<File>() {
 			@Override
@@ -25,10 +25,32 @@ import org.azkfw.document.tools.parser.DocumentParser;
  * このインターフェースは、ディレクトリ解析を定義する為のインターフェースです。
  * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/28
+ * @version 1.0.0 2015/02/17
  * @author kawakicchi
  */
 public interface DirectoryParser extends DocumentParser<File, DirectoryParserEvent, DirectoryParserListener> {
 
 	public void setDecorator(final DirectoryParserDecorator decorator);
+
+	/**
+	 * フィルターを追加する。
+	 * 
+	 * <p>
+	 * 全てのフィルターが対象としたエントリのみを通知します。
+	 * </p>
+	 * 
+	 * @param filter フィルター
+	 */
+	public void addFilter(final DirectoryParserFilter filter);
+
+	/**
+	 * 集計を設定する。
+	 * 
+	 * <p>
+	 * 集計する場合、各ディレクトリの配下のファイルのサイズの合計、ファイル数、最新の更新日時を走査と同時に集計し、配下を全て通知した後に通知します。
+	 * </p>
+	 * 
+	 * @param aggregation 集計する場合、<code>true</code>
+	 */
+	public void setAggregation(final boolean aggregation);
 }
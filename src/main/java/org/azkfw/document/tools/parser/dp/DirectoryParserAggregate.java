@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.dp;
+
+/**
+ * このクラスは、ディレクトリ配下の集計情報を保持するクラスです。
+ * 
+ * <p>
+ * 通知した要素のみを集計します。フィルターが対象外とした要素は含まず、要約した要素はファイル数とサイズのみを含みます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public final class DirectoryParserAggregate {
+
+	private long size;
+
+	private long fileCount;
+
+	private long lastModified;
+
+	/**
+	 * 要素を集計する。
+	 * 
+	 * @param info 直下の要素
+	 */
+	public void add(final DirectoryParserFileInfo info) {
+		if (info.isSummary()) {
+			size += info.getSize();
+			fileCount += info.getSummaryFileCount();
+		} else if (info.isFile()) {
+			size += info.getSize();
+			fileCount++;
+			lastModified = Math.max(lastModified, info.getLastModified());
+		} else if (info.isDirectory()) {
+			lastModified = Math.max(lastModified, info.getLastModified());
+		}
+	}
+
+	/**
+	 * サブディレクトリの集計を加算する。
+	 * 
+	 * @param aggregate サブディレクトリの集計
+	 */
+	public void add(final DirectoryParserAggregate aggregate) {
+		size += aggregate.size;
+		fileCount += aggregate.fileCount;
+		lastModified = Math.max(lastModified, aggregate.lastModified);
+	}
+
+	/**
+	 * 配下のファイルのサイズの合計を取得する。
+	 * 
+	 * @return サイズ（バイト）
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * 配下のファイル数を取得する。
+	 * 
+	 * @return ファイル数
+	 */
+	public long getFileCount() {
+		return fileCount;
+	}
+
+	/**
+	 * 配下の要素の最新の更新日時を取得する。
+	 * 
+	 * @return 更新日時（ミリ秒）。要素がない場合は0
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+}
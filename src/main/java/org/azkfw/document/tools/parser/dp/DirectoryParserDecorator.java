@@ -21,7 +21,7 @@ package org.azkfw.document.tools.parser.dp;
  * このインターフェースは、ディレクトリ解析の装飾を定義する為のインターフェースです。
  * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/28
+ * @version 1.0.0 2015/02/13
  * @author kawakicchi
  */
 public interface DirectoryParserDecorator {
@@ -41,4 +41,21 @@ public interface DirectoryParserDecorator {
 	public String getParentJoinString();
 
 	public boolean isParentJoinString(final String string);
+
+	/**
+	 * 指定階層の接頭文字を取得する。
+	 * 
+	 * @param info ファイル情報
+	 * @param level 階層（1から深さまで）
+	 * @return 接頭文字
+	 */
+	public String getPrefixString(final DirectoryParserFileInfo info, final int level);
+
+	/**
+	 * 全階層の接頭文字を連結した文字列を取得する。
+	 * 
+	 * @param info ファイル情報
+	 * @return 接頭文字
+	 */
+	public String getPrefix(final DirectoryParserFileInfo info);
 }
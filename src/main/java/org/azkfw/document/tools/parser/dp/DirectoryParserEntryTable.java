@@ -0,0 +1,345 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.dp;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+/**
+ * このクラスは、ディレクトリ直下のエントリをプリミティブ配列で保持するクラスです。
+ * 
+ * <p>
+ * 名前は1つの文字配列に連結して保持し、種別、サイズ、更新日時はエントリ毎の配列に保持します。 ソートは添字の配列に対して行う為、エントリ毎のオブジェクトを生成しません。
+ * 属性は{@link #getAttributes(int)}の呼び出し時に生成し、作成日時と最終アクセス日時は更新日時で代用します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/18
+ * @author kawakicchi
+ */
+public final class DirectoryParserEntryTable {
+
+	private static final byte TYPE_OTHER = 0;
+	private static final byte TYPE_FILE = 1;
+	private static final byte TYPE_DIRECTORY = 2;
+	private static final byte TYPE_SYMBOLIC_LINK = 3;
+
+	/** 連結した名前 */
+	private char[] names;
+
+	/** 名前の開始位置（エントリ数+1） */
+	private int[] offsets;
+
+	private byte[] types;
+
+	private long[] sizes;
+
+	private long[] lastModifieds;
+
+	private int count;
+
+	/** ソート順の添字。ソート前は<code>null</code> */
+	private int[] order;
+
+	public DirectoryParserEntryTable() {
+		this(16);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param capacity 初期のエントリ数
+	 */
+	public DirectoryParserEntryTable(final int capacity) {
+		int size = Math.max(1, capacity);
+		names = new char[size * 16];
+		offsets = new int[size + 1];
+		types = new byte[size];
+		sizes = new long[size];
+		lastModifieds = new long[size];
+		count = 0;
+	}
+
+	/**
+	 * エントリを追加する。
+	 * 
+	 * @param name 名前
+	 * @param attributes 属性
+	 */
+	public void add(final String name, final BasicFileAttributes attributes) {
+		byte type;
+		if (attributes.isRegularFile()) {
+			type = TYPE_FILE;
+		} else if (attributes.isDirectory()) {
+			type = TYPE_DIRECTORY;
+		} else if (attributes.isSymbolicLink()) {
+			type = TYPE_SYMBOLIC_LINK;
+		} else {
+			type = TYPE_OTHER;
+		}
+		add(name, type, attributes.size(), attributes.lastModifiedTime().toMillis());
+	}
+
+	/**
+	 * 他のテーブルのエントリを追加する。
+	 * 
+	 * @param table テーブル
+	 * @param index 添字（ソート後はソート順）
+	 */
+	void add(final DirectoryParserEntryTable table, final int index) {
+		int i = table.toEntry(index);
+		add(table.getName(index), table.types[i], table.sizes[i], table.lastModifieds[i]);
+	}
+
+	private void add(final String name, final byte type, final long size, final long lastModified) {
+		if (count == types.length) {
+			int capacity = count + (count >> 1) + 1;
+			offsets = Arrays.copyOf(offsets, capacity + 1);
+			types = Arrays.copyOf(types, capacity);
+			sizes = Arrays.copyOf(sizes, capacity);
+			lastModifieds = Arrays.copyOf(lastModifieds, capacity);
+		}
+		int offset = offsets[count];
+		int end = offset + name.length();
+		if (end > names.length) {
+			names = Arrays.copyOf(names, Math.max(end, names.length + (names.length >> 1)));
+		}
+		name.getChars(0, name.length(), names, offset);
+		offsets[count + 1] = end;
+
+		types[count] = type;
+		sizes[count] = size;
+		lastModifieds[count] = lastModified;
+		count++;
+		order = null;
+	}
+
+	/**
+	 * エントリ数を取得する。
+	 * 
+	 * @return エントリ数
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * ディレクトリ、ファイルの順に名前でソートする。
+	 * 
+	 * <p>
+	 * 名前の比較は{@link String#compareTo(String)}と同一です。
+	 * </p>
+	 */
+	public void sort() {
+		int[] result = new int[count];
+		for (int i = 0; i < count; i++) {
+			result[i] = i;
+		}
+		if (1 < count) {
+			int[] work = new int[count];
+			sort(result, work, 0, count);
+		}
+		order = result;
+	}
+
+	/**
+	 * 名前を取得する。
+	 * 
+	 * @param index 添字（ソート後はソート順）
+	 * @return 名前
+	 */
+	public String getName(final int index) {
+		int i = toEntry(index);
+		return new String(names, offsets[i], offsets[i + 1] - offsets[i]);
+	}
+
+	/**
+	 * 属性を取得する。
+	 * 
+	 * @param index 添字（ソート後はソート順）
+	 * @return 属性
+	 */
+	public BasicFileAttributes getAttributes(final int index) {
+		int i = toEntry(index);
+		return new Attributes(types[i], sizes[i], lastModifieds[i]);
+	}
+
+	/**
+	 * ストリームからテーブルを読み込む。
+	 * 
+	 * @param in ストリーム
+	 * @return ソートしたテーブル
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	static DirectoryParserEntryTable read(final DataInputStream in) throws IOException {
+		int size = in.readInt();
+		DirectoryParserEntryTable table = new DirectoryParserEntryTable(size);
+		for (int i = 0; i < size; i++) {
+			String name = in.readUTF();
+			byte type = in.readByte();
+			long length = in.readLong();
+			table.add(name, type, length, in.readLong());
+		}
+		table.sort();
+		return table;
+	}
+
+	/**
+	 * テーブルをストリームへ書き込む。
+	 * 
+	 * @param out ストリーム
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	void write(final DataOutputStream out) throws IOException {
+		out.writeInt(count);
+		for (int index = 0; index < count; index++) {
+			int i = toEntry(index);
+			out.writeUTF(getName(index));
+			out.writeByte(types[i]);
+			out.writeLong(sizes[i]);
+			out.writeLong(lastModifieds[i]);
+		}
+	}
+
+	private int toEntry(final int index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + count);
+		}
+		return (null == order) ? index : order[index];
+	}
+
+	/**
+	 * 添字の配列をマージソートする。
+	 */
+	private void sort(final int[] array, final int[] work, final int from, final int to) {
+		if (to - from <= 8) {
+			for (int i = from + 1; i < to; i++) {
+				int value = array[i];
+				int j = i - 1;
+				while (j >= from && 0 < compare(array[j], value)) {
+					array[j + 1] = array[j];
+					j--;
+				}
+				array[j + 1] = value;
+			}
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		sort(array, work, from, middle);
+		sort(array, work, middle, to);
+		if (0 >= compare(array[middle - 1], array[middle])) {
+			return;
+		}
+		System.arraycopy(array, from, work, from, to - from);
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if (right >= to || (left < middle && 0 >= compare(work[left], work[right]))) {
+				array[i] = work[left++];
+			} else {
+				array[i] = work[right++];
+			}
+		}
+	}
+
+	private int compare(final int e1, final int e2) {
+		if (TYPE_FILE == types[e1] && TYPE_DIRECTORY == types[e2]) {
+			return 1;
+		} else if (TYPE_DIRECTORY == types[e1] && TYPE_FILE == types[e2]) {
+			return -1;
+		}
+		int o1 = offsets[e1];
+		int o2 = offsets[e2];
+		int l1 = offsets[e1 + 1] - o1;
+		int l2 = offsets[e2 + 1] - o2;
+		int length = Math.min(l1, l2);
+		for (int i = 0; i < length; i++) {
+			char c1 = names[o1 + i];
+			char c2 = names[o2 + i];
+			if (c1 != c2) {
+				return c1 - c2;
+			}
+		}
+		return l1 - l2;
+	}
+
+	/**
+	 * このクラスは、テーブルに保持した値による属性です。
+	 */
+	private static final class Attributes implements BasicFileAttributes {
+
+		private final byte type;
+		private final long size;
+		private final long lastModified;
+
+		private Attributes(final byte type, final long size, final long lastModified) {
+			this.type = type;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		@Override
+		public FileTime lastModifiedTime() {
+			return FileTime.fromMillis(lastModified);
+		}
+
+		@Override
+		public FileTime lastAccessTime() {
+			return lastModifiedTime();
+		}
+
+		@Override
+		public FileTime creationTime() {
+			return lastModifiedTime();
+		}
+
+		@Override
+		public boolean isRegularFile() {
+			return TYPE_FILE == type;
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return TYPE_DIRECTORY == type;
+		}
+
+		@Override
+		public boolean isSymbolicLink() {
+			return TYPE_SYMBOLIC_LINK == type;
+		}
+
+		@Override
+		public boolean isOther() {
+			return TYPE_OTHER == type;
+		}
+
+		@Override
+		public long size() {
+			return size;
+		}
+
+		@Override
+		public Object fileKey() {
+			return null;
+		}
+	}
+}
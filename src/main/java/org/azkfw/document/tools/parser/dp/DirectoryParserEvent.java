@@ -20,28 +20,54 @@ package org.azkfw.document.tools.parser.dp;
 /**
  * このクラスは、ディレクトリ解析のイベント情報を保持するクラスです。
  * 
+ * <p>
+ * 集計を有効にした場合、ディレクトリの配下を全て通知した後に、そのディレクトリの情報と集計を持つイベントを通知します。
+ * </p>
+ * <p>
+ * イベントは通知毎に生成し、変更できません。 その為、リスナーはイベントを保持して後から参照できます。
+ * </p>
+ * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/28
+ * @version 1.0.0 2015/02/20
  * @author kawakicchi
  */
 public class DirectoryParserEvent {
 
-	private DirectoryParser parser;
-	private DirectoryParserFileInfo info;
+	private final DirectoryParser parser;
+	private final DirectoryParserFileInfo info;
+	private final DirectoryParserAggregate aggregate;
+
+	public DirectoryParserEvent(final DirectoryParser parser, final DirectoryParserFileInfo info) {
+		this(parser, info, null);
+	}
 
-	public DirectoryParserEvent(final DirectoryParser parser) {
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param parser 解析
+	 * @param info ファイルの情報
+	 * @param aggregate ディレクトリの集計。ディレクトリ配下の通知後のイベントでない場合は<code>null</code>
+	 */
+	public DirectoryParserEvent(final DirectoryParser parser, final DirectoryParserFileInfo info, final DirectoryParserAggregate aggregate) {
 		this.parser = parser;
+		this.info = info;
+		this.aggregate = aggregate;
 	}
 
 	public DirectoryParser getParser() {
 		return parser;
 	}
 
-	public void setInfo(final DirectoryParserFileInfo info) {
-		this.info = info;
-	}
-
 	public DirectoryParserFileInfo getInfo() {
 		return info;
 	}
+
+	/**
+	 * 集計を取得する。
+	 * 
+	 * @return 集計。ディレクトリ配下の通知後のイベントでない場合は<code>null</code>
+	 */
+	public DirectoryParserAggregate getAggregate() {
+		return aggregate;
+	}
 }
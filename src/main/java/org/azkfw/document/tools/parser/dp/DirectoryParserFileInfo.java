@@ -18,30 +18,254 @@
 package org.azkfw.document.tools.parser.dp;
 
 import java.io.File;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * このクラスは、ディレクトリ解析のファイル情報を保持するクラスです。
  * 
+ * <p>
+ * 要約の情報は、通知を省略した要素の件数とファイルサイズの合計を保持します。
+ * </p>
+ * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/28
+ * @version 1.0.0 2015/02/26
  * @author kawakicchi
  */
 public class DirectoryParserFileInfo {
 
 	private File file;
 
+	private int depth;
+
+	/** 1～64階層のフラグ */
+	private long flags;
+
+	/** 65階層以降のフラグ */
+	private long[] extraFlags;
+
+	private DirectoryParserDecorator decorator;
+
 	private String prefix;
 
-	public DirectoryParserFileInfo(final File file, final String prefix) {
+	private BasicFileAttributes attributes;
+
+	private boolean summary;
+
+	private long summaryFileCount;
+
+	private long summaryDirectoryCount;
+
+	private long summarySize;
+
+	private boolean summaryMore;
+
+	public DirectoryParserFileInfo(final File file, final DirectoryParserLevelStack levels, final DirectoryParserDecorator decorator) {
+		this(file, levels, decorator, null);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * <p>
+	 * 階層のフラグは生成時点の値を保持します。
+	 * </p>
+	 * 
+	 * @param file ファイル
+	 * @param levels 階層のスタック
+	 * @param decorator 接頭文字を生成する装飾
+	 * @param attributes 走査時に読み込んだ属性。<code>null</code>の場合、都度ファイルから取得する
+	 */
+	public DirectoryParserFileInfo(final File file, final DirectoryParserLevelStack levels, final DirectoryParserDecorator decorator,
+			final BasicFileAttributes attributes) {
 		this.file = file;
-		this.prefix = prefix;
+		this.depth = levels.getDepth();
+		this.flags = levels.getWord(0);
+		if (64 < depth) {
+			this.extraFlags = levels.copyWords(1, (depth + 63) >>> 6);
+		}
+		this.decorator = decorator;
+		this.attributes = attributes;
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * <p>
+	 * 要約の情報を生成します。
+	 * </p>
+	 * 
+	 * @param directory 要約した要素の親ディレクトリ
+	 * @param levels 階層のスタック
+	 * @param decorator 接頭文字を生成する装飾
+	 * @param fileCount 省略したファイル数（ディレクトリ以外の要素数）
+	 * @param directoryCount 省略したディレクトリ数
+	 * @param size 省略したファイルのサイズの合計。ディレクトリ配下のファイルは含まない
+	 * @param more 要約の前に通知した要素がある場合、<code>true</code>
+	 */
+	public DirectoryParserFileInfo(final File directory, final DirectoryParserLevelStack levels, final DirectoryParserDecorator decorator,
+			final long fileCount, final long directoryCount, final long size, final boolean more) {
+		this(directory, levels, decorator, null);
+		this.summary = true;
+		this.summaryFileCount = fileCount;
+		this.summaryDirectoryCount = directoryCount;
+		this.summarySize = size;
+		this.summaryMore = more;
 	}
 
 	public File getFile() {
 		return file;
 	}
 
+	/**
+	 * 深さを取得する。
+	 * 
+	 * @return 深さ（ルートは0）
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * 指定階層の要素が親ディレクトリの最後の要素か判断する。
+	 * 
+	 * @param level 階層（1から深さまで）。深さと同じ場合は自身を表す
+	 * @return 最後の要素の場合、<code>true</code>
+	 */
+	public boolean isLast(final int level) {
+		if (level < 1 || level > depth) {
+			throw new IndexOutOfBoundsException("level: " + level + ", depth: " + depth);
+		}
+		int bit = level - 1;
+		long word = (bit < 64) ? flags : extraFlags[(bit >>> 6) - 1];
+		return 0 != ((word >>> (bit & 63)) & 1L);
+	}
+
+	/**
+	 * 接頭文字を取得する。
+	 * 
+	 * <p>
+	 * 接頭文字は初回の呼び出し時に装飾から生成します。
+	 * </p>
+	 * 
+	 * @return 接頭文字
+	 */
 	public String getPrefix() {
+		if (null == prefix) {
+			prefix = decorator.getPrefix(this);
+		}
 		return prefix;
 	}
+
+	/**
+	 * 走査時に読み込んだ属性を取得する。
+	 * 
+	 * @return 属性。読み込んでいない場合は<code>null</code>
+	 */
+	public BasicFileAttributes getAttributes() {
+		return attributes;
+	}
+
+	/**
+	 * 要約の情報か判断する。
+	 * 
+	 * @return 要約の場合、<code>true</code>
+	 */
+	public boolean isSummary() {
+		return summary;
+	}
+
+	/**
+	 * 要約で省略した要素数を取得する。
+	 * 
+	 * @return 要素数
+	 */
+	public long getSummaryCount() {
+		return summaryFileCount + summaryDirectoryCount;
+	}
+
+	/**
+	 * 要約で省略したファイル数を取得する。
+	 * 
+	 * @return ディレクトリ以外の要素数
+	 */
+	public long getSummaryFileCount() {
+		return summaryFileCount;
+	}
+
+	/**
+	 * 要約で省略したディレクトリ数を取得する。
+	 * 
+	 * @return ディレクトリ数
+	 */
+	public long getSummaryDirectoryCount() {
+		return summaryDirectoryCount;
+	}
+
+	/**
+	 * 表示名を取得する。
+	 * 
+	 * <p>
+	 * 要約の場合は省略したディレクトリ数とファイル数を表示し、サイズは省略したファイルの合計とします。
+	 * </p>
+	 * 
+	 * @return ファイル名。要約の場合は省略した要素数とサイズ
+	 */
+	public String getName() {
+		if (summary) {
+			String more = summaryMore ? "more " : "";
+			StringBuilder s = new StringBuilder(summaryMore ? "… and " : "… ");
+			if (0 < summaryDirectoryCount) {
+				s.append(String.format("%,d %s%s", summaryDirectoryCount, more, (1 == summaryDirectoryCount) ? "directory"
+						: "directories"));
+			}
+			if (0 < summaryFileCount || 0 == summaryDirectoryCount) {
+				if (0 < summaryDirectoryCount) {
+					s.append(" and ");
+				}
+				s.append(String.format("%,d %s%s (%s)", summaryFileCount, more, (1 == summaryFileCount) ? "file" : "files",
+						toSizeString(summarySize)));
+			}
+			return s.toString();
+		}
+		return file.getName();
+	}
+
+	public boolean isFile() {
+		if (summary) {
+			return false;
+		}
+		return (null != attributes) ? attributes.isRegularFile() : file.isFile();
+	}
+
+	public boolean isDirectory() {
+		if (summary) {
+			return false;
+		}
+		return (null != attributes) ? attributes.isDirectory() : file.isDirectory();
+	}
+
+	public long getSize() {
+		if (summary) {
+			return summarySize;
+		}
+		return (null != attributes) ? attributes.size() : file.length();
+	}
+
+	public long getLastModified() {
+		return (null != attributes) ? attributes.lastModifiedTime().toMillis() : file.lastModified();
+	}
+
+	private static String toSizeString(final long size) {
+		if (size < 1024) {
+			return String.format("%d B", size);
+		}
+		String[] units = new String[] { "KB", "MB", "GB", "TB" };
+		double value = size;
+		int unit = -1;
+		while (1024 <= value && unit < units.length - 1) {
+			value /= 1024;
+			unit++;
+		}
+		return String.format("%.1f %s", value, units[unit]);
+	}
 }
@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.dp;
+
+import java.nio.file.Path;
+
+/**
+ * このインターフェースは、ディレクトリ解析のフィルターを定義する為のインターフェースです。
+ * 
+ * <p>
+ * フィルターはディレクトリを列挙する前に評価される為、除外したディレクトリ配下は列挙されません。
+ * 並列走査時は複数のスレッドから呼び出される為、スレッドセーフに実装する必要があります。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/14
+ * @author kawakicchi
+ */
+public interface DirectoryParserFilter {
+
+	/**
+	 * 対象とするエントリか判断する。
+	 * 
+	 * @param path ルートディレクトリからの相対パス
+	 * @param directory ディレクトリの場合、<code>true</code>
+	 * @param depth 深さ（ルート直下は1）
+	 * @return 対象とする場合、<code>true</code>。ディレクトリを対象外とした場合、配下も対象外となる
+	 */
+	public boolean accept(final Path path, final boolean directory, final int depth);
+
+	/**
+	 * ディレクトリ配下を列挙するか判断する。
+	 * 
+	 * @param path ルートディレクトリからの相対パス
+	 * @param depth 深さ（ルートは0）
+	 * @return 列挙する場合、<code>true</code>
+	 */
+	public boolean descend(final Path path, final int depth);
+}
@@ -0,0 +1,249 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.dp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * このクラスは、{@code .gitignore}の規則によりエントリを除外するフィルタークラスです。
+ * 
+ * <p>
+ * 各ディレクトリの{@code .gitignore}は、配下のエントリを評価する時に読み込みます。
+ * 規則は上位のディレクトリから順に評価し、最後に一致した規則を採用します。
+ * {@code .git}ディレクトリは常に除外します。
+ * </p>
+ * <p>
+ * 対応する構文は、コメント、否定（{@code !}）、ディレクトリのみ（末尾の{@code /}）、ディレクトリ基準（{@code /}を含む）
+ * およびワイルドカード（{@code *}、{@code ?}、{@code [...]}、{@code **}）です。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/14
+ * @author kawakicchi
+ */
+public class DirectoryParserGitIgnoreFilter implements DirectoryParserFilter {
+
+	private static final String IGNORE_FILE = ".gitignore";
+
+	private static final String GIT_DIRECTORY = ".git";
+
+	private static final Path EMPTY = Paths.get("");
+
+	private final Path root;
+
+	/** ディレクトリ（相対パス）毎の規則 */
+	private final Map<Path, List<Rule>> rules;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param root 解析するルートディレクトリ
+	 */
+	public DirectoryParserGitIgnoreFilter(final File root) {
+		this.root = root.toPath();
+		rules = new ConcurrentHashMap<Path, List<Rule>>();
+	}
+
+	@Override
+	public boolean accept(final Path path, final boolean directory, final int depth) {
+		int count = path.getNameCount();
+		if (directory && GIT_DIRECTORY.equals(path.getName(count - 1).toString())) {
+			return false;
+		}
+
+		boolean ignored = false;
+		for (int i = 0; i < count; i++) {
+			Path base = (0 == i) ? EMPTY : path.subpath(0, i);
+			String relative = toString(path.subpath(i, count));
+			for (Rule rule : getRules(base)) {
+				if (rule.matches(relative, directory)) {
+					ignored = !rule.negative;
+				}
+			}
+		}
+		return !ignored;
+	}
+
+	@Override
+	public boolean descend(final Path path, final int depth) {
+		return true;
+	}
+
+	private List<Rule> getRules(final Path directory) {
+		List<Rule> list = rules.get(directory);
+		if (null == list) {
+			list = load(root.resolve(directory).resolve(IGNORE_FILE));
+			rules.put(directory, list);
+		}
+		return list;
+	}
+
+	private static List<Rule> load(final Path file) {
+		if (!Files.isRegularFile(file)) {
+			return Collections.emptyList();
+		}
+		List<Rule> list = new ArrayList<Rule>();
+		try {
+			for (String line : Files.readAllLines(file, Charset.forName("UTF-8"))) {
+				Rule rule = Rule.parse(line);
+				if (null != rule) {
+					list.add(rule);
+				}
+			}
+		} catch (IOException ex) {
+			System.err.println("Skip " + file + " : " + ex.getMessage());
+		}
+		return list;
+	}
+
+	private static String toString(final Path path) {
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < path.getNameCount(); i++) {
+			if (0 < i) {
+				s.append('/');
+			}
+			s.append(path.getName(i).toString());
+		}
+		return s.toString();
+	}
+
+	/**
+	 * このクラスは、{@code .gitignore}の1行の規則を保持するクラスです。
+	 */
+	static final class Rule {
+
+		private final Pattern pattern;
+		private final boolean negative;
+		private final boolean directoryOnly;
+		private final boolean anchored;
+
+		private Rule(final Pattern pattern, final boolean negative, final boolean directoryOnly, final boolean anchored) {
+			this.pattern = pattern;
+			this.negative = negative;
+			this.directoryOnly = directoryOnly;
+			this.anchored = anchored;
+		}
+
+		/**
+		 * 規則を解析する。
+		 * 
+		 * @param line 行
+		 * @return 規則。空行およびコメントの場合は<code>null</code>
+		 */
+		static Rule parse(final String line) {
+			String s = line;
+			while (s.endsWith(" ") && !s.endsWith("\\ ")) {
+				s = s.substring(0, s.length() - 1);
+			}
+			if (0 == s.length() || s.startsWith("#")) {
+				return null;
+			}
+
+			boolean negative = false;
+			if (s.startsWith("!")) {
+				negative = true;
+				s = s.substring(1);
+			} else if (s.startsWith("\\!") || s.startsWith("\\#")) {
+				s = s.substring(1);
+			}
+
+			boolean directoryOnly = false;
+			if (s.endsWith("/")) {
+				directoryOnly = true;
+				s = s.substring(0, s.length() - 1);
+			}
+
+			boolean anchored = -1 != s.indexOf('/');
+			if (s.startsWith("/")) {
+				s = s.substring(1);
+			}
+			if (0 == s.length()) {
+				return null;
+			}
+			return new Rule(Pattern.compile(toRegex(s)), negative, directoryOnly, anchored);
+		}
+
+		/**
+		 * 規則に一致するか判断する。
+		 * 
+		 * @param relative {@code .gitignore}のディレクトリからの相対パス（区切りは{@code /}）
+		 * @param directory ディレクトリの場合、<code>true</code>
+		 * @return 一致する場合、<code>true</code>
+		 */
+		boolean matches(final String relative, final boolean directory) {
+			if (directoryOnly && !directory) {
+				return false;
+			}
+			String target = anchored ? relative : relative.substring(relative.lastIndexOf('/') + 1);
+			return pattern.matcher(target).matches();
+		}
+
+		private static String toRegex(final String glob) {
+			StringBuilder s = new StringBuilder();
+			int length = glob.length();
+			for (int i = 0; i < length; i++) {
+				char c = glob.charAt(i);
+				if ('*' == c) {
+					if (i + 1 < length && '*' == glob.charAt(i + 1)) {
+						i++;
+						if (i + 1 < length && '/' == glob.charAt(i + 1)) {
+							// 「**/」は0個以上のディレクトリ
+							i++;
+							s.append("(?:.*/)?");
+						} else {
+							s.append(".*");
+						}
+					} else {
+						s.append("[^/]*");
+					}
+				} else if ('?' == c) {
+					s.append("[^/]");
+				} else if ('[' == c) {
+					int end = glob.indexOf(']', i + 1);
+					if (-1 == end) {
+						s.append("\\[");
+					} else {
+						String set = glob.substring(i + 1, end);
+						if (set.startsWith("!")) {
+							set = "^" + set.substring(1);
+						}
+						s.append('[').append(set.replace("\\", "\\\\")).append(']');
+						i = end;
+					}
+				} else if ('\\' == c && i + 1 < length) {
+					i++;
+					s.append(Pattern.quote(String.valueOf(glob.charAt(i))));
+				} else {
+					s.append(Pattern.quote(String.valueOf(c)));
+				}
+			}
+			return s.toString();
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.dp;
+
+import java.util.Arrays;
+
+/**
+ * このクラスは、ディレクトリ走査中の各階層が最後の要素かどうかを保持するスタックです。
+ * 
+ * <p>
+ * 階層毎のフラグをビット列として保持し、走査中は同一のインスタンスを再利用します。 接頭文字は{@link DirectoryParserDecorator}
+ * がこのフラグから必要な時に生成する為、走査時に文字列を生成しません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class DirectoryParserLevelStack {
+
+	private long[] words;
+
+	private int depth;
+
+	public DirectoryParserLevelStack() {
+		words = new long[1];
+		depth = 0;
+	}
+
+	/**
+	 * 階層を1つ下げる。
+	 * 
+	 * @param last 追加する階層の要素が親ディレクトリの最後の要素の場合、<code>true</code>
+	 */
+	public void push(final boolean last) {
+		int index = depth >>> 6;
+		if (index >= words.length) {
+			words = Arrays.copyOf(words, words.length * 2);
+		}
+		long mask = 1L << (depth & 63);
+		if (last) {
+			words[index] |= mask;
+		} else {
+			words[index] &= ~mask;
+		}
+		depth++;
+	}
+
+	/**
+	 * 階層を1つ上げる。
+	 */
+	public void pop() {
+		depth--;
+	}
+
+	/**
+	 * 深さを取得する。
+	 * 
+	 * @return 深さ（ルートは0）
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * 指定階層の要素が最後の要素か判断する。
+	 * 
+	 * @param level 階層（1から深さまで）
+	 * @return 最後の要素の場合、<code>true</code>
+	 */
+	public boolean isLast(final int level) {
+		if (level < 1 || level > depth) {
+			throw new IndexOutOfBoundsException("level: " + level + ", depth: " + depth);
+		}
+		int bit = level - 1;
+		return 0 != ((words[bit >>> 6] >>> (bit & 63)) & 1L);
+	}
+
+	long getWord(final int index) {
+		return words[index];
+	}
+
+	long[] copyWords(final int from, final int to) {
+		return Arrays.copyOfRange(words, from, to);
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.dp;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * このクラスは、パターンと深さによりエントリを絞り込むフィルタークラスです。
+ * 
+ * <p>
+ * パターンは{@link FileSystems#getPathMatcher(String)}の形式（{@code glob:}または{@code regex:}）で指定し、構文を省略した場合は{@code glob:}とみなします。
+ * パターンは相対パスとファイル名の両方に対して評価する為、{@code node_modules}のように指定した場合は全ての階層の同名のエントリに一致します。
+ * </p>
+ * <p>
+ * 除外パターンはファイルとディレクトリ、包含パターンはファイルのみに適用します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/14
+ * @author kawakicchi
+ */
+public class DirectoryParserPatternFilter implements DirectoryParserFilter {
+
+	private final List<PathMatcher> includes;
+	private final List<PathMatcher> excludes;
+
+	private int maxDepth;
+
+	public DirectoryParserPatternFilter() {
+		includes = new CopyOnWriteArrayList<PathMatcher>();
+		excludes = new CopyOnWriteArrayList<PathMatcher>();
+		maxDepth = -1;
+	}
+
+	/**
+	 * 包含パターンを追加する。
+	 * 
+	 * @param pattern パターン
+	 */
+	public void addInclude(final String pattern) {
+		includes.add(getMatcher(pattern));
+	}
+
+	/**
+	 * 除外パターンを追加する。
+	 * 
+	 * @param pattern パターン
+	 */
+	public void addExclude(final String pattern) {
+		excludes.add(getMatcher(pattern));
+	}
+
+	/**
+	 * 最大の深さを設定する。
+	 * 
+	 * @param maxDepth 深さ（ルート直下は1）。負数の場合は制限しない
+	 */
+	public void setMaxDepth(final int maxDepth) {
+		this.maxDepth = maxDepth;
+	}
+
+	@Override
+	public boolean accept(final Path path, final boolean directory, final int depth) {
+		if (0 <= maxDepth && depth > maxDepth) {
+			return false;
+		}
+		if (matches(excludes, path)) {
+			return false;
+		}
+		if (!directory && !includes.isEmpty() && !matches(includes, path)) {
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean descend(final Path path, final int depth) {
+		return 0 > maxDepth || depth < maxDepth;
+	}
+
+	private static boolean matches(final List<PathMatcher> matchers, final Path path) {
+		Path fileName = path.getFileName();
+		for (PathMatcher matcher : matchers) {
+			if (matcher.matches(path) || (null != fileName && matcher.matches(fileName))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static PathMatcher getMatcher(final String pattern) {
+		if (pattern.startsWith("glob:") || pattern.startsWith("regex:")) {
+			return FileSystems.getDefault().getPathMatcher(pattern);
+		}
+		return FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+	}
+}
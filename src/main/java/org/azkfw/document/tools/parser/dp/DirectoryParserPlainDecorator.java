@@ -21,7 +21,7 @@ package org.azkfw.document.tools.parser.dp;
  * このクラスは、ディレクトリ解析の装飾をテキストで定義したクラスです。
  * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/28
+ * @version 1.0.0 2015/02/13
  * @author kawakicchi
  */
 public class DirectoryParserPlainDecorator implements DirectoryParserDecorator {
@@ -78,4 +78,22 @@ public class DirectoryParserPlainDecorator implements DirectoryParserDecorator {
 		return parentJoin.equals(string);
 	}
 
+	@Override
+	public final String getPrefixString(final DirectoryParserFileInfo info, final int level) {
+		if (level < info.getDepth()) {
+			return info.isLast(level) ? parentEmpty : parentJoin;
+		}
+		return info.isLast(level) ? terminal : middle;
+	}
+
+	@Override
+	public final String getPrefix(final DirectoryParserFileInfo info) {
+		int depth = info.getDepth();
+		StringBuilder s = new StringBuilder(depth);
+		for (int level = 1; level <= depth; level++) {
+			s.append(getPrefixString(info, level));
+		}
+		return s.toString();
+	}
+
 }
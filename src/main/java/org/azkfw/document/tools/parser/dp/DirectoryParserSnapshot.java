@@ -0,0 +1,292 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.dp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * このクラスは、ディレクトリ毎の列挙結果を保持するスナップショットクラスです。
+ * 
+ * <p>
+ * 列挙結果はディレクトリの相対パスのハッシュ値をキーに、相対パスおよびディレクトリの更新日時と共に独自のバイナリ形式でファイルに保存します。
+ * ハッシュ値が衝突した場合に別のディレクトリの列挙結果を使用しないよう、取得時は相対パスも比較します。
+ * 次回の走査では、更新日時が一致するディレクトリは再列挙せずに保存した列挙結果を使用します。
+ * 列挙した時刻と更新日時の差が{@link #RACY_INTERVAL}未満の列挙結果は、同一時刻内の変更を検出できない為使用しません。
+ * </p>
+ * <p>
+ * ディレクトリの更新日時は直下の要素の追加、削除、名前の変更でのみ変わる為、再利用するのは直下の要素の名前の一覧のみです。
+ * ファイルのサイズおよび更新日時は変わる場合がある為、走査側で要素毎に属性を読み込み直します。
+ * </p>
+ * <p>
+ * 走査のルートディレクトリも保存し、{@link #validate(Path)}で異なるルートの走査に使用した場合は全ての列挙結果を破棄します。
+ * </p>
+ * <p>
+ * 走査で参照したディレクトリのみを次回の保存対象とします。 このクラスはスレッドセーフです。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public final class DirectoryParserSnapshot {
+
+	/** 更新日時の精度を考慮した、列挙結果を信頼できる最小の経過時間（ミリ秒） */
+	public static final long RACY_INTERVAL = 2000;
+
+	private static final int MAGIC = 0x415A4453;
+	private static final int VERSION = 3;
+
+	/** 走査のルートディレクトリ */
+	private String root;
+
+	/** 読み込んだ列挙結果 */
+	private final Map<Long, Listing> previous;
+
+	/** 今回の走査で参照した列挙結果 */
+	private final Map<Long, Listing> current;
+
+	private final AtomicLong listedCount;
+	private final AtomicLong reusedCount;
+
+	public DirectoryParserSnapshot() {
+		root = "";
+		previous = new ConcurrentHashMap<Long, Listing>();
+		current = new ConcurrentHashMap<Long, Listing>();
+		listedCount = new AtomicLong();
+		reusedCount = new AtomicLong();
+	}
+
+	/**
+	 * ファイルからスナップショットを読み込む。
+	 * 
+	 * <p>
+	 * ファイルが存在しない、空、または形式が異なる場合は空のスナップショットを返します。
+	 * </p>
+	 * 
+	 * @param file ファイル
+	 * @return スナップショット
+	 */
+	public static DirectoryParserSnapshot load(final File file) {
+		DirectoryParserSnapshot snapshot = new DirectoryParserSnapshot();
+		if (file.isFile() && 0 < file.length()) {
+			try {
+				DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+				try {
+					snapshot.read(in);
+				} finally {
+					in.close();
+				}
+			} catch (IOException ex) {
+				System.err.println("Discard snapshot " + file.getAbsolutePath() + " : " + ex.getMessage());
+				snapshot.previous.clear();
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * 今回の走査で参照した列挙結果をファイルへ保存する。
+	 * 
+	 * @param file ファイル
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public void save(final File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			write(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * 走査のルートディレクトリを検証する。
+	 * 
+	 * <p>
+	 * 保持しているルートディレクトリと異なる場合、読み込んだ全ての列挙結果を破棄します。
+	 * </p>
+	 * 
+	 * @param root ルートディレクトリ
+	 */
+	public synchronized void validate(final Path root) {
+		String path = root.toAbsolutePath().normalize().toString();
+		if (!this.root.equals(path)) {
+			previous.clear();
+			current.clear();
+			this.root = path;
+		}
+	}
+
+	/**
+	 * 列挙結果を取得する。
+	 * 
+	 * <p>
+	 * 返す列挙結果の属性は保存時の値の為、名前の一覧としてのみ使用します。
+	 * </p>
+	 * 
+	 * @param path ルートからの相対パス
+	 * @param lastModified ディレクトリの現在の更新日時
+	 * @return 列挙結果。保持していない、または更新されている場合は<code>null</code>
+	 */
+	public DirectoryParserEntryTable get(final Path path, final long lastModified) {
+		String name = toPathString(path);
+		Long key = Long.valueOf(hash(name));
+		Listing listing = previous.get(key);
+		if (null != listing && name.equals(listing.path) && lastModified == listing.lastModified
+				&& lastModified + RACY_INTERVAL <= listing.listed) {
+			current.put(key, listing);
+			reusedCount.incrementAndGet();
+			return listing.table;
+		}
+		return null;
+	}
+
+	/**
+	 * 列挙結果を登録する。
+	 * 
+	 * @param path ルートからの相対パス
+	 * @param lastModified ディレクトリの列挙前の更新日時
+	 * @param listed 列挙を開始した時刻
+	 * @param table フィルターを適用していない列挙結果
+	 */
+	public void put(final Path path, final long lastModified, final long listed, final DirectoryParserEntryTable table) {
+		Listing listing = new Listing();
+		listing.path = toPathString(path);
+		listing.lastModified = lastModified;
+		listing.listed = listed;
+		listing.table = table;
+		current.put(Long.valueOf(hash(listing.path)), listing);
+		listedCount.incrementAndGet();
+	}
+
+	/**
+	 * 保存対象の列挙結果の数を取得する。
+	 * 
+	 * @return 今回の走査で参照または登録したディレクトリ数
+	 */
+	public int size() {
+		return current.size();
+	}
+
+	/**
+	 * 再列挙したディレクトリ数を取得する。
+	 * 
+	 * @return ディレクトリ数
+	 */
+	public long getListedCount() {
+		return listedCount.get();
+	}
+
+	/**
+	 * 列挙結果を再利用したディレクトリ数を取得する。
+	 * 
+	 * @return ディレクトリ数
+	 */
+	public long getReusedCount() {
+		return reusedCount.get();
+	}
+
+	/**
+	 * 相対パスを区切り文字を{@code /}に統一した文字列にする。
+	 * 
+	 * @param path 相対パス
+	 * @return パス文字列
+	 */
+	static String toPathString(final Path path) {
+		StringBuilder s = new StringBuilder();
+		int count = path.getNameCount();
+		for (int i = 0; i < count; i++) {
+			if (0 < i) {
+				s.append('/');
+			}
+			s.append(path.getName(i).toString());
+		}
+		return s.toString();
+	}
+
+	/**
+	 * パス文字列のハッシュ値を取得する。
+	 * 
+	 * <p>
+	 * パス文字列のFNV-1a（64ビット）です。
+	 * </p>
+	 * 
+	 * @param path パス文字列
+	 * @return ハッシュ値
+	 */
+	static long hash(final String path) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < path.length(); i++) {
+			hash = (hash ^ path.charAt(i)) * 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private void read(final DataInputStream in) throws IOException {
+		if (MAGIC != in.readInt() || VERSION != in.readInt()) {
+			throw new IOException("Unsupported format.");
+		}
+		root = in.readUTF();
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			long key = in.readLong();
+			Listing listing = new Listing();
+			listing.path = in.readUTF();
+			listing.lastModified = in.readLong();
+			listing.listed = in.readLong();
+			listing.table = DirectoryParserEntryTable.read(in);
+			previous.put(Long.valueOf(key), listing);
+		}
+	}
+
+	private void write(final DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(root);
+		List<Map.Entry<Long, Listing>> list = new ArrayList<Map.Entry<Long, Listing>>(current.entrySet());
+		out.writeInt(list.size());
+		for (Map.Entry<Long, Listing> e : list) {
+			Listing listing = e.getValue();
+			out.writeLong(e.getKey().longValue());
+			out.writeUTF(listing.path);
+			out.writeLong(listing.lastModified);
+			out.writeLong(listing.listed);
+			listing.table.write(out);
+		}
+	}
+
+	private static class Listing {
+		private String path;
+		private long lastModified;
+		private long listed;
+		private DirectoryParserEntryTable table;
+	}
+}
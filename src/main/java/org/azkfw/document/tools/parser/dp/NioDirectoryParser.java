@@ -0,0 +1,757 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.dp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.azkfw.document.tools.parser.AbstractDocumentParser;
+
+/**
+ * このクラスは、NIOによりディレクトリ解析を行うクラスです。
+ * 
+ * <p>
+ * {@link Files#newDirectoryStream(Path)}でディレクトリを列挙し、各エントリの属性は{@link BasicFileAttributes}として一度だけ読み込みます。
+ * 読み込んだ属性はソートおよび{@link DirectoryParserFileInfo}で再利用する為、エントリ毎のファイル属性の問い合わせは1回になります。
+ * </p>
+ * <p>
+ * 並列度に2以上を設定した場合、サブディレクトリの列挙を{@link ForkJoinPool}で先行して行います。
+ * 先行した列挙結果は最大同時列挙数を上限に保持し、リスナーへは{@link #parse(Object)}を呼び出したスレッド（非同期通知の場合は通知用のスレッド）から
+ * 逐次走査と同一の順序（ソート済みの深さ優先順）で通知します。
+ * </p>
+ * <p>
+ * 最大子要素数を設定した場合、子要素がそれを超えるディレクトリはソート順の先頭から最大子要素数までを通知し、残りを1件の要約として通知します。
+ * 列挙中は最大子要素数分のエントリのみを保持する為、子要素の数に関わらずメモリ使用量は一定です。
+ * 要約深さを設定した場合、その深さのディレクトリは展開せずに子要素全体を要約として通知します。
+ * </p>
+ * <p>
+ * ソートする場合、列挙したエントリは{@link DirectoryParserEntryTable}にプリミティブ配列として保持し、通知時にパスと属性を生成します。
+ * ソートしない場合、ディレクトリの列挙順に1件先読みしながら通知する為、列挙結果を保持しません。 この場合、走査中は各階層のディレクトリを開いたままとし、並列度は使用しません。
+ * </p>
+ * <p>
+ * スナップショットを設定した場合、各ディレクトリの更新日時のみを取得し、スナップショットと一致するディレクトリは列挙結果を再利用します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public class NioDirectoryParser extends AbstractDocumentParser<File, DirectoryParserEvent, DirectoryParserListener> implements DirectoryParser {
+
+	/** 既定の最大同時列挙数 */
+	public static final int DEFAULT_MAX_IN_FLIGHT_LISTINGS = 64;
+
+	/** ディレクトリ、ファイルの順に名前で並べる比較 */
+	private static final Comparator<Entry> COMPARATOR = new Comparator<Entry>() {
+		@Override
+		public int compare(final Entry e1, final Entry e2) {
+			if (e1.attributes.isRegularFile() && e2.attributes.isDirectory()) {
+				return 1;
+			} else if (e1.attributes.isDirectory() && e2.attributes.isRegularFile()) {
+				return -1;
+			}
+			return e1.name.compareTo(e2.name);
+		}
+	};
+
+	private DirectoryParserDecorator decorator;
+
+	private DirectoryParserLevelStack levels;
+
+	private List<DirectoryParserFilter> filters;
+
+	private Path root;
+
+	private int parallelism;
+
+	private int maxInFlightListings;
+
+	private int maxChildren;
+
+	private int summaryDepth;
+
+	private boolean sorted;
+
+	private boolean aggregation;
+
+	private DirectoryParserSnapshot snapshot;
+
+	private ExecutorService service;
+
+	/** 先行して列挙したディレクトリ（並列走査時のみ） */
+	private Map<Path, Future<List<Entry>>> listings;
+
+	public NioDirectoryParser() {
+		levels = new DirectoryParserLevelStack();
+		filters = new CopyOnWriteArrayList<DirectoryParserFilter>();
+		parallelism = 1;
+		maxInFlightListings = DEFAULT_MAX_IN_FLIGHT_LISTINGS;
+		maxChildren = -1;
+		summaryDepth = -1;
+		sorted = true;
+	}
+
+	/**
+	 * 走査の並列度を設定する。
+	 * 
+	 * @param parallelism 並列度。1以下の場合は逐次走査する
+	 */
+	public final void setParallelism(final int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * 最大同時列挙数を設定する。
+	 * 
+	 * <p>
+	 * 実行中および通知待ちの先行列挙の合計がこの数を超えないように制御します。保持する列挙結果の数の上限にもなります。
+	 * </p>
+	 * 
+	 * @param max 最大同時列挙数
+	 */
+	public final void setMaxInFlightListings(final int max) {
+		this.maxInFlightListings = Math.max(1, max);
+	}
+
+	@Override
+	public void setDecorator(final DirectoryParserDecorator decorator) {
+		this.decorator = decorator;
+	}
+
+	@Override
+	public void addFilter(final DirectoryParserFilter filter) {
+		filters.add(filter);
+	}
+
+	/**
+	 * 最大子要素数を設定する。
+	 * 
+	 * @param max 1ディレクトリで通知する子要素の最大数。負数の場合は制限しない
+	 */
+	public final void setMaxChildren(final int max) {
+		this.maxChildren = max;
+	}
+
+	/**
+	 * 要約深さを設定する。
+	 * 
+	 * @param depth 展開せずに要約するディレクトリの深さ（ルートは0）。負数の場合は要約しない
+	 */
+	public final void setSummaryDepth(final int depth) {
+		this.summaryDepth = depth;
+	}
+
+	/**
+	 * ソートするかを設定する。
+	 * 
+	 * @param sorted ソートしない場合、<code>false</code>。ディレクトリの列挙順に通知する
+	 */
+	public final void setSorted(final boolean sorted) {
+		this.sorted = sorted;
+	}
+
+	@Override
+	public void setAggregation(final boolean aggregation) {
+		this.aggregation = aggregation;
+	}
+
+	/**
+	 * スナップショットを設定する。
+	 * 
+	 * <p>
+	 * ソートしない場合は使用しません。 スナップショットはフィルターを適用する前の列挙結果を保持する為、フィルターの異なる走査でも使用できます。
+	 * </p>
+	 * 
+	 * @param snapshot スナップショット。使用しない場合は<code>null</code>
+	 */
+	public final void setSnapshot(final DirectoryParserSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	@Override
+	protected void doInitialize() {
+
+	}
+
+	@Override
+	protected void doRelease() {
+
+	}
+
+	@Override
+	protected void doParse(final File directory) {
+		if (null == decorator) {
+			decorator = new DirectoryParserPlainDecorator();
+		}
+
+		if (sorted && 1 < parallelism) {
+			service = new ForkJoinPool(parallelism);
+			listings = new HashMap<Path, Future<List<Entry>>>();
+		}
+		root = directory.toPath();
+		if (null != snapshot) {
+			snapshot.validate(root);
+		}
+		try {
+			nest(new Entry(root, Files.readAttributes(root, BasicFileAttributes.class), 0), null);
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		} finally {
+			if (null != service) {
+				synchronized (listings) {
+					for (Future<List<Entry>> future : listings.values()) {
+						future.cancel(true);
+					}
+					listings.clear();
+				}
+				service.shutdownNow();
+				service = null;
+				listings = null;
+			}
+		}
+	}
+
+	/**
+	 * 要素を通知し、ディレクトリの場合は配下を走査する。
+	 * 
+	 * @param entry エントリ
+	 * @param parent 親ディレクトリの集計。集計しない場合は<code>null</code>
+	 */
+	private void nest(final Entry entry, final DirectoryParserAggregate parent) {
+		DirectoryParserFileInfo fi;
+		if (null == entry.attributes) {
+			fi = new DirectoryParserFileInfo(entry.path.toFile(), levels, decorator, entry.fileCount, entry.directoryCount, entry.size,
+					entry.more);
+		} else {
+			fi = new DirectoryParserFileInfo(entry.path.toFile(), levels, decorator, entry.attributes);
+		}
+		callListener(new DirectoryParserEvent(this, fi));
+		if (null != parent) {
+			parent.add(fi);
+		}
+
+		if (isDescend(entry)) {
+			DirectoryParserAggregate aggregate = (aggregation) ? new DirectoryParserAggregate() : null;
+			if (sorted) {
+				List<Entry> entries = getEntries(entry);
+				for (int i = 0; i < entries.size(); i++) {
+					nest(entries.get(i), i == entries.size() - 1, aggregate);
+				}
+			} else {
+				stream(entry, aggregate);
+			}
+
+			if (null != aggregate) {
+				callListener(new DirectoryParserEvent(this, fi, aggregate));
+				if (null != parent) {
+					parent.add(aggregate);
+				}
+			}
+		}
+	}
+
+	private void nest(final Entry entry, final boolean last, final DirectoryParserAggregate parent) {
+		levels.push(last);
+		nest(entry, parent);
+		levels.pop();
+	}
+
+	/**
+	 * ディレクトリ直下のエントリを列挙順に通知する。
+	 * 
+	 * <p>
+	 * 最後の要素か判断する為、1件先読みしてから通知します。
+	 * </p>
+	 * 
+	 * @param directory ディレクトリ
+	 * @param aggregate ディレクトリの集計。集計しない場合は<code>null</code>
+	 */
+	private void stream(final Entry directory, final DirectoryParserAggregate aggregate) {
+		int limit = getLimit(directory);
+		int depth = directory.depth + 1;
+		Entry pending = null;
+		long acceptedCount = 0;
+		long omittedCount = 0;
+		long omittedDirectories = 0;
+		long omittedSize = 0;
+		try {
+			DirectoryStream<Path> stream = Files.newDirectoryStream(directory.path);
+			try {
+				for (Path path : stream) {
+					Entry entry = read(path, depth, true);
+					if (null == entry) {
+						continue;
+					}
+					acceptedCount++;
+					if (0 <= limit && acceptedCount > limit) {
+						omittedCount++;
+						if (entry.attributes.isDirectory()) {
+							omittedDirectories++;
+						} else {
+							omittedSize += entry.attributes.size();
+						}
+						continue;
+					}
+					if (null != pending) {
+						nest(pending, false, aggregate);
+					}
+					pending = entry;
+				}
+			} finally {
+				stream.close();
+			}
+		} catch (IOException ex) {
+			System.err.println("Skip directory " + directory.path + " : " + ex.getMessage());
+		}
+
+		if (null != pending) {
+			nest(pending, 0 == omittedCount, aggregate);
+		}
+		if (0 < omittedCount) {
+			nest(new Entry(directory.path, depth, omittedCount - omittedDirectories, omittedDirectories, omittedSize,
+					omittedCount < acceptedCount), true, aggregate);
+		}
+	}
+
+	/**
+	 * ディレクトリ直下のエントリを取得する。
+	 * 
+	 * <p>
+	 * 先行して列挙済みの場合はその結果を使用し、取得したエントリのサブディレクトリの先行列挙を開始します。
+	 * </p>
+	 * 
+	 * @param directory ディレクトリ
+	 * @return エントリ
+	 */
+	private List<Entry> getEntries(final Entry directory) {
+		if (null == service) {
+			return list(directory);
+		}
+
+		Future<List<Entry>> future;
+		synchronized (listings) {
+			future = listings.remove(directory.path);
+		}
+		List<Entry> entries = null;
+		if (null != future) {
+			try {
+				entries = future.get();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException ex) {
+				ex.printStackTrace();
+			}
+		}
+		if (null == entries) {
+			entries = list(directory);
+		}
+		prefetch(entries, service, listings);
+		return entries;
+	}
+
+	/**
+	 * サブディレクトリの先行列挙を開始する。
+	 * 
+	 * @param entries エントリ
+	 * @param executor エクゼキューター
+	 * @param buffer 先行列挙の結果
+	 */
+	private void prefetch(final List<Entry> entries, final ExecutorService executor, final Map<Path, Future<List<Entry>>> buffer) {
+		for (final Entry directory : entries) {
+			if (!isDescend(directory)) {
+				continue;
+			}
+			synchronized (buffer) {
+				if (buffer.size() >= maxInFlightListings) {
+					return;
+				}
+				if (buffer.containsKey(directory.path)) {
+					continue;
+				}
+				try {
+					buffer.put(directory.path, executor.submit(new Callable<List<Entry>>() {
+						@Override
+						public List<Entry> call() {
+							List<Entry> result = list(directory);
+							prefetch(result, executor, buffer);
+							return result;
+						}
+					}));
+				} catch (RejectedExecutionException ex) {
+					// 走査終了後
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * ディレクトリ配下を列挙するか判断する。
+	 * 
+	 * @param entry エントリ
+	 * @return 列挙する場合、<code>true</code>
+	 */
+	private boolean isDescend(final Entry entry) {
+		if (null == entry.attributes || !entry.attributes.isDirectory()) {
+			return false;
+		}
+		if (!filters.isEmpty()) {
+			Path path = root.relativize(entry.path);
+			for (DirectoryParserFilter filter : filters) {
+				if (!filter.descend(path, entry.depth)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * ディレクトリ直下のエントリを属性と共に取得する。
+	 * 
+	 * <p>
+	 * フィルターが対象外としたエントリは含みません。 最大子要素数を超えた場合、ソート順で先頭のエントリのみを上限付きのヒープで保持し、残りは件数とサイズのみを集計します。
+	 * </p>
+	 * 
+	 * @param directory ディレクトリ
+	 * @return ディレクトリ、ファイルの順に名前でソートしたエントリ。要約がある場合は末尾に要約のエントリを含む
+	 */
+	private List<Entry> list(final Entry directory) {
+		int limit = getLimit(directory);
+		if (null != snapshot) {
+			return toEntries(directory, filter(directory, getSnapshotTable(directory)), limit);
+		}
+		if (0 > limit) {
+			return toEntries(directory, read(directory, true), limit);
+		}
+
+		// 保持しているエントリの最後尾を先頭とするヒープ
+		PriorityQueue<Entry> heap = new PriorityQueue<Entry>(Math.max(1, Math.min(limit, 1024)), Collections.reverseOrder(COMPARATOR));
+		long omittedCount = 0;
+		long omittedDirectories = 0;
+		long omittedSize = 0;
+
+		int depth = directory.depth + 1;
+		try {
+			DirectoryStream<Path> stream = Files.newDirectoryStream(directory.path);
+			try {
+				for (Path path : stream) {
+					Entry entry = read(path, depth, true);
+					if (null == entry) {
+						continue;
+					}
+					Entry omitted = entry;
+					if (heap.size() < limit) {
+						heap.add(entry);
+						omitted = null;
+					} else if (0 < limit && 0 > COMPARATOR.compare(entry, heap.peek())) {
+						omitted = heap.poll();
+						heap.add(entry);
+					}
+					if (null != omitted) {
+						omittedCount++;
+						if (omitted.attributes.isDirectory()) {
+							omittedDirectories++;
+						} else {
+							omittedSize += omitted.attributes.size();
+						}
+					}
+				}
+			} finally {
+				stream.close();
+			}
+		} catch (IOException ex) {
+			System.err.println("Skip directory " + directory.path + " : " + ex.getMessage());
+		}
+
+		List<Entry> entries = new ArrayList<Entry>(heap);
+		Collections.sort(entries, COMPARATOR);
+		if (0 < omittedCount) {
+			entries.add(new Entry(directory.path, depth, omittedCount - omittedDirectories, omittedDirectories, omittedSize,
+					!entries.isEmpty()));
+		}
+
+		return entries;
+	}
+
+	/**
+	 * ディレクトリ直下の全エントリを{@link DirectoryParserEntryTable}に取得する。
+	 * 
+	 * @param directory ディレクトリ
+	 * @param filter フィルターを適用する場合、<code>true</code>
+	 * @return ディレクトリ、ファイルの順に名前でソートしたエントリ
+	 */
+	private DirectoryParserEntryTable read(final Entry directory, final boolean filter) {
+		DirectoryParserEntryTable table = new DirectoryParserEntryTable();
+		int depth = directory.depth + 1;
+		try {
+			DirectoryStream<Path> stream = Files.newDirectoryStream(directory.path);
+			try {
+				for (Path path : stream) {
+					Entry entry = read(path, depth, filter);
+					if (null != entry) {
+						table.add(entry.name, entry.attributes);
+					}
+				}
+			} finally {
+				stream.close();
+			}
+		} catch (IOException ex) {
+			System.err.println("Skip directory " + directory.path + " : " + ex.getMessage());
+		}
+
+		table.sort();
+		return table;
+	}
+
+	/**
+	 * スナップショットからディレクトリ直下の全エントリを取得する。
+	 * 
+	 * <p>
+	 * ディレクトリの更新日時がスナップショットと異なる場合は再列挙し、スナップショットに登録します。
+	 * スナップショットの列挙結果を再利用する場合も、ファイルのサイズおよび更新日時は変わる場合がある為、要素毎に属性を読み込み直します。
+	 * </p>
+	 * 
+	 * @param directory ディレクトリ
+	 * @return フィルターを適用していないエントリ
+	 */
+	private DirectoryParserEntryTable getSnapshotTable(final Entry directory) {
+		Path path = root.relativize(directory.path);
+		long lastModified;
+		try {
+			// 親ディレクトリの列挙結果を再利用した場合、エントリの属性は保存時の値の為、取得し直す
+			lastModified = Files.readAttributes(directory.path, BasicFileAttributes.class).lastModifiedTime().toMillis();
+		} catch (IOException ex) {
+			System.err.println("Skip directory " + directory.path + " : " + ex.getMessage());
+			return new DirectoryParserEntryTable();
+		}
+
+		DirectoryParserEntryTable table = snapshot.get(path, lastModified);
+		if (null == table) {
+			long listed = System.currentTimeMillis();
+			table = read(directory, false);
+			snapshot.put(path, lastModified, listed, table);
+			return table;
+		}
+
+		// 名前の一覧のみを再利用し、ディレクトリの列挙を省略する
+		DirectoryParserEntryTable result = new DirectoryParserEntryTable(table.size());
+		int depth = directory.depth + 1;
+		for (int i = 0; i < table.size(); i++) {
+			Entry entry = read(directory.path.resolve(table.getName(i)), depth, false);
+			if (null != entry) {
+				result.add(entry.name, entry.attributes);
+			}
+		}
+		result.sort();
+		return result;
+	}
+
+	/**
+	 * エントリにフィルターを適用する。
+	 * 
+	 * @param directory ディレクトリ
+	 * @param table エントリ
+	 * @return フィルターが対象としたエントリ
+	 */
+	private DirectoryParserEntryTable filter(final Entry directory, final DirectoryParserEntryTable table) {
+		if (filters.isEmpty()) {
+			return table;
+		}
+		DirectoryParserEntryTable result = new DirectoryParserEntryTable(table.size());
+		int depth = directory.depth + 1;
+		for (int i = 0; i < table.size(); i++) {
+			if (accept(new Entry(directory.path.resolve(table.getName(i)), table.getAttributes(i), depth))) {
+				result.add(table, i);
+			}
+		}
+		result.sort();
+		return result;
+	}
+
+	/**
+	 * ソートしたエントリを最大子要素数までのリストにする。
+	 * 
+	 * @param directory ディレクトリ
+	 * @param table ソートしたエントリ
+	 * @param limit 最大子要素数。負数の場合は制限しない
+	 * @return エントリ。要素は取得時に生成する
+	 */
+	private List<Entry> toEntries(final Entry directory, final DirectoryParserEntryTable table, final int limit) {
+		int depth = directory.depth + 1;
+		if (0 > limit || table.size() <= limit) {
+			return new EntryList(directory.path, depth, table, table.size(), null);
+		}
+		long omittedFiles = 0;
+		long omittedDirectories = 0;
+		long omittedSize = 0;
+		for (int i = limit; i < table.size(); i++) {
+			BasicFileAttributes attributes = table.getAttributes(i);
+			if (attributes.isDirectory()) {
+				omittedDirectories++;
+			} else {
+				omittedFiles++;
+				omittedSize += attributes.size();
+			}
+		}
+		Entry summary = new Entry(directory.path, depth, omittedFiles, omittedDirectories, omittedSize, 0 < limit);
+		return new EntryList(directory.path, depth, table, limit, summary);
+	}
+
+	/**
+	 * エントリを属性と共に読み込む。
+	 * 
+	 * @param path パス
+	 * @param depth 深さ
+	 * @param filter フィルターを適用する場合、<code>true</code>
+	 * @return エントリ。フィルターが対象外とした場合、または読み込めない場合は<code>null</code>
+	 */
+	private Entry read(final Path path, final int depth, final boolean filter) {
+		try {
+			Entry entry = new Entry(path, Files.readAttributes(path, BasicFileAttributes.class), depth);
+			if (!filter || accept(entry)) {
+				return entry;
+			}
+		} catch (IOException ex) {
+			System.err.println("Skip file " + path + " : " + ex.getMessage());
+		}
+		return null;
+	}
+
+	/**
+	 * ディレクトリで通知する子要素の最大数を取得する。
+	 * 
+	 * @param directory ディレクトリ
+	 * @return 最大数。制限しない場合は負数
+	 */
+	private int getLimit(final Entry directory) {
+		return (0 <= summaryDepth && directory.depth >= summaryDepth) ? 0 : maxChildren;
+	}
+
+	private boolean accept(final Entry entry) {
+		if (!filters.isEmpty()) {
+			Path path = root.relativize(entry.path);
+			for (DirectoryParserFilter filter : filters) {
+				if (!filter.accept(path, entry.attributes.isDirectory(), entry.depth)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * このクラスは、{@link DirectoryParserEntryTable}の要素をエントリとして参照するリストです。
+	 */
+	private static final class EntryList extends AbstractList<Entry> {
+
+		private final Path directory;
+		private final int depth;
+		private final DirectoryParserEntryTable table;
+		/** テーブルから参照する要素数 */
+		private final int count;
+		/** 末尾の要約。要約しない場合は<code>null</code> */
+		private final Entry summary;
+
+		private EntryList(final Path directory, final int depth, final DirectoryParserEntryTable table, final int count, final Entry summary) {
+			this.directory = directory;
+			this.depth = depth;
+			this.table = table;
+			this.count = count;
+			this.summary = summary;
+		}
+
+		@Override
+		public Entry get(final int index) {
+			if (index == count && null != summary) {
+				return summary;
+			}
+			if (index < 0 || index >= count) {
+				throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+			}
+			return new Entry(directory.resolve(table.getName(index)), table.getAttributes(index), depth);
+		}
+
+		@Override
+		public int size() {
+			return (null == summary) ? count : count + 1;
+		}
+	}
+
+	private static class Entry {
+		private final Path path;
+		private final String name;
+		private final BasicFileAttributes attributes;
+		private final int depth;
+
+		/** 要約のファイル数 */
+		private final long fileCount;
+		/** 要約のディレクトリ数 */
+		private final long directoryCount;
+		/** 要約のファイルのサイズ */
+		private final long size;
+		/** 要約の前に通知したエントリがある場合、<code>true</code> */
+		private final boolean more;
+
+		private Entry(final Path path, final BasicFileAttributes attributes, final int depth) {
+			this.path = path;
+			this.depth = depth;
+			Path fileName = path.getFileName();
+			this.name = (null == fileName) ? path.toString() : fileName.toString();
+			this.attributes = attributes;
+			fileCount = 0;
+			directoryCount = 0;
+			size = 0;
+			more = false;
+		}
+
+		/**
+		 * 要約のエントリを生成する。
+		 */
+		private Entry(final Path directory, final int depth, final long fileCount, final long directoryCount, final long size,
+				final boolean more) {
+			this.path = directory;
+			this.depth = depth;
+			this.name = "";
+			this.attributes = null;
+			this.fileCount = fileCount;
+			this.directoryCount = directoryCount;
+			this.size = size;
+			this.more = more;
+		}
+	}
+}
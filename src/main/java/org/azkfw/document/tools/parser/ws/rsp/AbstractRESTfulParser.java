@@ -0,0 +1,328 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.azkfw.document.tools.parser.AbstractDocumentParser;
+import org.azkfw.util.StringUtility;
+
+/**
+ * このクラスは、JAX-RS解析の共通処理を実装した基底クラスです。
+ *
+ * <p>
+ * 並列度に2以上を設定した場合、クラスの解析を複数のスレッドで行います。その場合でも、 リスナーは常に{@link #parse(Object)}
+ * を呼び出したスレッドから、クラス名の一覧の順に呼び出されます。 その為、リスナーをスレッドセーフにする必要はなく、結果の順序も逐次解析と同一になります。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public abstract class AbstractRESTfulParser extends AbstractDocumentParser<File, RESTfulParserEvent, RESTfulParserListener> implements
+		RESTfulParser {
+
+	/** 1タスクで解析するクラス数 */
+	private static final int CHUNK_SIZE = 64;
+
+	private String targetPackage;
+
+	private int parallelism;
+
+	private List<PathMatcher> libraries;
+
+	private ExecutorService executor;
+
+	private AtomicLong analyzedClassCount;
+	private AtomicLong analyzeTime;
+
+	public AbstractRESTfulParser() {
+		targetPackage = null;
+		parallelism = 1;
+		libraries = new ArrayList<PathMatcher>();
+		executor = null;
+		analyzedClassCount = new AtomicLong();
+		analyzeTime = new AtomicLong();
+	}
+
+	@Override
+	public final void setTargetPackage(final String targetPackage) {
+		this.targetPackage = targetPackage;
+	}
+
+	/**
+	 * 解析の並列度を設定する。
+	 *
+	 * @param parallelism 並列度。1以下の場合は逐次解析する
+	 */
+	public final void setParallelism(final int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	@Override
+	public final void setLibraries(final String... patterns) {
+		List<PathMatcher> list = new ArrayList<PathMatcher>();
+		for (String pattern : patterns) {
+			list.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+		}
+		libraries = list;
+	}
+
+	/**
+	 * 並列解析に使用するエクゼキューターを設定する。
+	 *
+	 * <p>
+	 * 設定しない場合、解析毎に並列度と同数のスレッドを持つ{@link ForkJoinPool}を生成します。 設定したエクゼキューターはシャットダウンしません。
+	 * </p>
+	 *
+	 * @param executor エクゼキューター
+	 */
+	public final void setExecutorService(final ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public final long getAnalyzedClassCount() {
+		return analyzedClassCount.get();
+	}
+
+	@Override
+	public final long getAnalyzeTime() {
+		return analyzeTime.get();
+	}
+
+	/**
+	 * 解析の統計を初期化する。
+	 *
+	 * <p>
+	 * 解析の開始時に呼び出します。
+	 * </p>
+	 */
+	protected final void resetStatistics() {
+		analyzedClassCount.set(0);
+		analyzeTime.set(0);
+	}
+
+	/**
+	 * 解析対象のパッケージを取得する。
+	 *
+	 * @return パッケージ名。未設定の場合は<code>null</code>
+	 */
+	protected final String getTargetPackage() {
+		return targetPackage;
+	}
+
+	/**
+	 * 解析対象のライブラリか判断する。
+	 *
+	 * @param name ライブラリのエントリ名（例: {@code WEB-INF/lib/myapp-1.0.jar}）
+	 * @return 対象の場合、<code>true</code>
+	 */
+	protected final boolean isTargetLibrary(final String name) {
+		Path fileName = Paths.get(name.substring(name.lastIndexOf('/') + 1));
+		for (PathMatcher matcher : libraries) {
+			if (matcher.matches(fileName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 解析対象のクラスか判断する。
+	 *
+	 * @param className クラス名
+	 * @return 対象の場合、<code>true</code>
+	 */
+	protected final boolean isTargetClass(final String className) {
+		return StringUtility.isEmpty(targetPackage) || className.startsWith(targetPackage);
+	}
+
+	/**
+	 * クラスを順に解析し、検出したリソースメソッドを通知する。
+	 *
+	 * @param classNames クラス名のリスト
+	 * @param analyzer 解析処理
+	 */
+	protected final void analyze(final List<String> classNames, final ClassAnalyzer analyzer) {
+		if (1 >= parallelism || CHUNK_SIZE >= classNames.size()) {
+			for (String className : classNames) {
+				for (MethodData methodData : analyze(className, analyzer)) {
+					onFindMethod(methodData);
+				}
+			}
+			return;
+		}
+
+		ExecutorService service = executor;
+		if (null == service) {
+			service = new ForkJoinPool(parallelism);
+		}
+		// 未取得の結果を保持するタスク数を制限し、メモリ使用量を抑える
+		Deque<Future<List<List<MethodData>>>> futures = new ArrayDeque<Future<List<List<MethodData>>>>();
+		try {
+			int index = 0;
+			while (index < classNames.size() || !futures.isEmpty()) {
+				while (index < classNames.size() && futures.size() < parallelism * 4) {
+					final List<String> chunk = classNames.subList(index, Math.min(index + CHUNK_SIZE, classNames.size()));
+					futures.add(service.submit(new Callable<List<List<MethodData>>>() {
+						@Override
+						public List<List<MethodData>> call() {
+							List<List<MethodData>> result = new ArrayList<List<MethodData>>(chunk.size());
+							for (String className : chunk) {
+								result.add(analyze(className, analyzer));
+							}
+							return result;
+						}
+					}));
+					index += chunk.size();
+				}
+
+				Future<List<List<MethodData>>> future = futures.poll();
+				try {
+					for (List<MethodData> methods : future.get()) {
+						for (MethodData methodData : methods) {
+							onFindMethod(methodData);
+						}
+					}
+				} catch (ExecutionException ex) {
+					ex.printStackTrace();
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} finally {
+			for (Future<?> future : futures) {
+				future.cancel(true);
+			}
+			if (service != executor) {
+				service.shutdown();
+			}
+		}
+	}
+
+	private List<MethodData> analyze(final String className, final ClassAnalyzer analyzer) {
+		List<MethodData> result = null;
+		if (isTargetClass(className)) {
+			long start = System.nanoTime();
+			try {
+				result = analyzer.analyze(className);
+			} catch (Exception ex) {
+				System.err.println("Skip class " + className + " : " + ex);
+			} catch (LinkageError ex) {
+				System.err.println("Skip class " + className + " : " + ex);
+			} finally {
+				analyzedClassCount.incrementAndGet();
+				analyzeTime.addAndGet(System.nanoTime() - start);
+			}
+		}
+		if (null == result) {
+			result = new ArrayList<MethodData>();
+		}
+		return result;
+	}
+
+	/**
+	 * リソースメソッドを検出した時に呼び出される。
+	 *
+	 * <p>
+	 * 検出したリソースメソッドをリスナーへ通知します。
+	 * </p>
+	 *
+	 * @param methodData メソッド情報
+	 */
+	protected final void onFindMethod(final MethodData methodData) {
+		callListener(new RESTfulParserEvent(this, methodData));
+	}
+
+	/**
+	 * クラスとメソッドのパスを結合する。
+	 *
+	 * <p>
+	 * OSに依存しないよう、区切り文字は常に{@code /}とし、先頭に{@code /}を付与します。
+	 * {@code {name: regex}}形式のテンプレート変数の正規表現内の{@code /}は区切り文字として扱いません。
+	 * </p>
+	 *
+	 * @param classPath クラスのパス
+	 * @param methodPath メソッドのパス
+	 * @return パス
+	 */
+	protected static String toPath(final String classPath, final String methodPath) {
+		StringBuilder s = new StringBuilder();
+		append(s, classPath);
+		append(s, methodPath);
+		if (0 == s.length()) {
+			s.append('/');
+		}
+		return s.toString();
+	}
+
+	private static void append(final StringBuilder s, final String path) {
+		if (null == path) {
+			return;
+		}
+		int depth = 0;
+		int start = 0;
+		for (int i = 0; i <= path.length(); i++) {
+			char c = (i < path.length()) ? path.charAt(i) : '/';
+			if ('{' == c) {
+				depth++;
+			} else if ('}' == c && 0 < depth) {
+				depth--;
+			} else if (('/' == c && 0 == depth) || i == path.length()) {
+				if (start < i) {
+					s.append('/').append(path, start, i);
+				}
+				start = i + 1;
+			}
+		}
+	}
+
+	/**
+	 * このインターフェースは、1クラスの解析処理を定義する為のインターフェースです。
+	 *
+	 * <p>
+	 * 並列解析時は複数のスレッドから同時に呼び出されます。
+	 * </p>
+	 */
+	protected interface ClassAnalyzer {
+
+		/**
+		 * クラスを解析する。
+		 *
+		 * @param className クラス名
+		 * @return リソースメソッド情報のリスト。リソースクラスでない場合は空のリストまたは<code>null</code>
+		 * @throws Exception 解析に失敗した場合
+		 */
+		public List<MethodData> analyze(final String className) throws Exception;
+	}
+}
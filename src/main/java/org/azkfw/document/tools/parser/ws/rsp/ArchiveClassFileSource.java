@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.azkfw.document.tools.archive.ArchiveReader;
+
+/**
+ * このクラスは、アーカイブ(jar/war)内のエントリからクラスファイルを取得するクラスです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public class ArchiveClassFileSource implements ClassFileSource {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private static final byte[] CLASS_SUFFIX = ".class".getBytes(UTF8);
+	private static final byte[] META_INF = "META-INF/".getBytes(UTF8);
+
+	private ArchiveReader reader;
+
+	private String basePath;
+
+	private List<String> classNames;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param file アーカイブファイル
+	 * @param basePath クラスパスのルートとなるエントリ名（例: {@code WEB-INF/classes/}）
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public ArchiveClassFileSource(final File file, final String basePath) throws IOException {
+		this(ArchiveReader.open(file), basePath);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param reader アーカイブ
+	 * @param basePath クラスパスのルートとなるエントリ名（例: {@code WEB-INF/classes/}）
+	 */
+	public ArchiveClassFileSource(final ArchiveReader reader, final String basePath) {
+		this.reader = reader;
+		this.basePath = basePath;
+		classNames = new ArrayList<String>();
+
+		byte[] prefix = basePath.getBytes(UTF8);
+		for (int i = 0; i < reader.size(); i++) {
+			if (reader.startsWith(i, prefix) && reader.endsWith(i, CLASS_SUFFIX)) {
+				if (0 == prefix.length && reader.startsWith(i, META_INF)) {
+					continue;
+				}
+				String name = reader.getName(i);
+				name = name.substring(basePath.length(), name.length() - 6);
+				classNames.add(name.replace('/', '.'));
+			}
+		}
+	}
+
+	@Override
+	public List<String> getClassNames() {
+		return Collections.unmodifiableList(classNames);
+	}
+
+	@Override
+	public ByteBuffer getClassFile(final String className) throws IOException {
+		int index = reader.indexOf(basePath + className.replace('.', '/') + ".class");
+		if (-1 == index) {
+			return null;
+		}
+		return reader.read(index);
+	}
+
+	@Override
+	public long getClassFileHash(final String className) throws IOException {
+		int index = reader.indexOf(basePath + className.replace('.', '/') + ".class");
+		if (-1 == index) {
+			return -1;
+		}
+		return (reader.getCrc(index) << 32) | (reader.getSize(index) & 0xFFFFFFFFL);
+	}
+
+	@Override
+	public ClassFileEntry getClassFileEntry(final String className) throws IOException {
+		long hash = getClassFileHash(className);
+		if (-1 == hash) {
+			return null;
+		}
+		return new ClassFileEntry(this, className, hash, null);
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
@@ -17,18 +17,20 @@
  */
 package org.azkfw.document.tools.parser.ws.rsp;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.nio.file.Paths;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Enumeration;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -36,36 +38,27 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HEAD;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.OPTIONS;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 
-import org.azkfw.biz.zip.ZipUtility;
-import org.azkfw.document.tools.parser.AbstractDocumentParser;
-import org.azkfw.util.FileUtility;
-import org.azkfw.util.StringUtility;
+import org.azkfw.document.tools.archive.ArchiveReader;
 
 /**
+ * このクラスは、クラスをロードしリフレクションによりJAX-RS解析を行うクラスです。
+ * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/30
+ * @version 1.0.0 2015/02/25
  * @author kawakicchi
  */
-public class BasicRESTfulParser extends AbstractDocumentParser<File, RESTfulParserEvent, RESTfulParserListener> implements RESTfulParser {
-
-	@SuppressWarnings("unused")
-	private RESTfulParserEvent event;
-
-	private String targetPackage;
+public class BasicRESTfulParser extends AbstractRESTfulParser {
 
 	public BasicRESTfulParser() {
-		event = new RESTfulParserEvent(this);
-		targetPackage = null;
-	}
-
-	@Override
-	public final void setTargetPackage(final String targetPackage) {
-		this.targetPackage = targetPackage;
 	}
 
 	@Override
@@ -80,134 +73,98 @@ public class BasicRESTfulParser extends AbstractDocumentParser<File, RESTfulPars
 
 	@Override
 	protected final void doParse(final File document) {
-		ClassLoader cl = null;
+		resetStatistics();
 
-		File tempDir = null;
+		ClassLoader cl = null;
 		try {
-			List<String> classPaths = new ArrayList<String>();
+			List<String> classPaths = null;
 
-			if (document.isDirectory()) {
-				// get class file
-				List<File> files = new ArrayList<File>();
-				getClassFile(document, files);
+			ClassFileSource source = ClassFileSources.open(document);
+			try {
+				classPaths = source.getClassNames();
+			} finally {
+				source.close();
+			}
 
-				// create class loader
+			// create class loader
+			boolean war = ClassFileSources.isWar(document);
+			if (war) {
+				cl = new WarClassLoader(document, ClassLoader.getSystemClassLoader());
+			} else {
 				cl = URLClassLoader.newInstance(new URL[] { document.toURI().toURL() }, ClassLoader.getSystemClassLoader());
+			}
 
-				// class
-				int preSize = document.getAbsolutePath().length() + 1;
-				for (File f : files) {
-					String s = f.getAbsolutePath().substring(preSize, f.getAbsolutePath().length() - 6);
-					s = s.replaceAll("\\\\", ".");
-					s = s.replaceAll("/", ".");
-					classPaths.add(s);
+			final ClassLoader classLoader = cl;
+			ClassAnalyzer analyzer = new ClassAnalyzer() {
+				@Override
+				public List<MethodData> analyze(final String className) throws ClassNotFoundException {
+					return doParse(classLoader.loadClass(className));
 				}
-			} else {
-				if (document.getName().toLowerCase().endsWith(".jar")) {
-
-					// create class loader
-					cl = URLClassLoader.newInstance(new URL[] { document.toURI().toURL() }, ClassLoader.getSystemClassLoader());
-
-					// class
-					JarFile jarFile = new JarFile(document);
-					for (Enumeration<JarEntry> e = jarFile.entries(); e.hasMoreElements();) {
-						JarEntry entry = e.nextElement();
-						if (!entry.isDirectory()) {
-							if (entry.getName().toLowerCase().endsWith(".class")) {
-								String s = entry.getName();
-								s = s.substring(0, s.length() - 6);
-								s = s.replaceAll("\\\\", ".");
-								s = s.replaceAll("/", ".");
-								classPaths.add(s);
-							}
-						}
-					}
-					jarFile.close();
-				} else if (document.getName().toLowerCase().endsWith(".war")) {
-					tempDir = Paths.get("temp").toFile();
-					tempDir.mkdirs();
-					ZipUtility.unzip(document.getAbsolutePath(), tempDir.getAbsolutePath());
-					java.nio.file.Path classFilePath = Paths.get(tempDir.getAbsolutePath(), "WEB-INF", "classes");
-
-					// get class file
-					List<File> files = new ArrayList<File>();
-					getClassFile(classFilePath.toFile(), files);
-
-					// create class loader
-					List<URL> urls = new ArrayList<URL>();
-					urls.add(classFilePath.toUri().toURL());
-					File fs = Paths.get(tempDir.getAbsolutePath(), "WEB-INF", "lib").toFile();
-					for (File f : fs.listFiles()) {
-						if (f.isFile()) {
-							if (f.getName().toLowerCase().endsWith(".jar")) {
-								urls.add(f.toURI().toURL());
+			};
+			analyze(classPaths, analyzer);
+
+			// 対象ライブラリのクラスはwarファイルのクラスローダーからロードする
+			if (war) {
+				ArchiveReader reader = ArchiveReader.open(document);
+				try {
+					for (String name : ClassFileSources.getLibraryNames(reader)) {
+						if (isTargetLibrary(name)) {
+							ByteBuffer jar = reader.read(reader.indexOf(name));
+							ClassFileSource library = new ArchiveClassFileSource(new ArchiveReader(jar), "");
+							try {
+								analyze(library.getClassNames(), analyzer);
+							} finally {
+								library.close();
 							}
 						}
 					}
-					cl = URLClassLoader.newInstance(urls.toArray(new URL[] {}), ClassLoader.getSystemClassLoader());
-
-					// class
-					int preSize = classFilePath.toFile().getAbsolutePath().length() + 1;
-					for (File f : files) {
-						String s = f.getAbsolutePath().substring(preSize, f.getAbsolutePath().length() - 6);
-						s = s.replaceAll("\\\\", ".");
-						s = s.replaceAll("/", ".");
-						classPaths.add(s);
-					}
+				} finally {
+					reader.close();
 				}
 			}
 
-			for (String path : classPaths) {
-				Class<?> clazz = cl.loadClass(path);
-				doParse(clazz);
-			}
-
-		} catch (ClassNotFoundException ex) {
-			ex.printStackTrace();
 		} catch (MalformedURLException ex) {
 			ex.printStackTrace();
 		} catch (IOException ex) {
 			ex.printStackTrace();
 		} finally {
-			if (null != tempDir) {
-				FileUtility.remove(tempDir);
+			if (cl instanceof Closeable) {
+				try {
+					((Closeable) cl).close();
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				}
 			}
 		}
 	}
 
-	private void doParse(final Class<?> clazz) {
-		if (StringUtility.isEmpty(targetPackage) || clazz.getName().startsWith(targetPackage)) {
+	private List<MethodData> doParse(final Class<?> clazz) {
+		List<MethodData> result = new ArrayList<MethodData>();
 
-			ClassData classData = getClassData(clazz);
+		ClassData classData = getClassData(clazz);
 
-			Path pathClass = clazz.getAnnotation(Path.class);
-			if (null != pathClass) {
-
-				Method[] methods = clazz.getMethods();
-				for (Method method : methods) {
-
-					MethodData methodData = getMethodData(method, classData);
-					if (null != methodData) {
-						System.out.println(methodData.getPath());
-					}
+		Path pathClass = clazz.getAnnotation(Path.class);
+		if (null != pathClass) {
 
+			Method[] methods = clazz.getMethods();
+			// getMethodsの順序は不定の為、並び替える
+			Arrays.sort(methods, new Comparator<Method>() {
+				@Override
+				public int compare(final Method m1, final Method m2) {
+					return m1.toString().compareTo(m2.toString());
 				}
-			}
+			});
+			for (Method method : methods) {
 
-		}
-	}
+				MethodData methodData = getMethodData(method, classData);
+				if (null != methodData) {
+					result.add(methodData);
+				}
 
-	private void getClassFile(final File file, final List<File> files) {
-		if (file.isFile()) {
-			if (file.getName().toLowerCase().endsWith(".class")) {
-				files.add(file);
-			}
-		} else {
-			File[] fs = file.listFiles();
-			for (File f : fs) {
-				getClassFile(f, files);
 			}
 		}
+
+		return result;
 	}
 
 	protected final void test(final File document) {
@@ -266,6 +223,7 @@ public class BasicRESTfulParser extends AbstractDocumentParser<File, RESTfulPars
 
 	private ClassData getClassData(final Class<?> clazz) {
 		ClassData data = new ClassData();
+		data.setClassName(clazz.getName());
 		Path path = clazz.getAnnotation(Path.class);
 		if (null != path) {
 			data.setPath(path.value());
@@ -287,13 +245,7 @@ public class BasicRESTfulParser extends AbstractDocumentParser<File, RESTfulPars
 
 	private MethodData getMethodData(final Method method, final ClassData clazz) {
 		MethodData data = new MethodData(clazz);
-		Path path = method.getAnnotation(Path.class);
-		if (null != path) {
-			java.nio.file.Path p = Paths.get(clazz.getPath(), path.value());
-			data.setPath(p.toString());
-		} else {
-			return null;
-		}
+		data.setMethodName(method.getName());
 		GET get = method.getAnnotation(GET.class);
 		if (null != get) {
 			data.addMethodType("GET");
@@ -314,6 +266,18 @@ public class BasicRESTfulParser extends AbstractDocumentParser<File, RESTfulPars
 		if (null != head) {
 			data.addMethodType("HEAD");
 		}
+		OPTIONS options = method.getAnnotation(OPTIONS.class);
+		if (null != options) {
+			data.addMethodType("OPTIONS");
+		}
+		Path path = method.getAnnotation(Path.class);
+		if (null != path) {
+			data.setPath(toPath(clazz.getPath(), path.value()));
+		} else if (!data.getMethodTypes().isEmpty()) {
+			data.setPath(toPath(clazz.getPath(), null));
+		} else {
+			return null;
+		}
 		Consumes consumes = method.getAnnotation(Consumes.class);
 		if (null != consumes) {
 			for (String s : consumes.value()) {
@@ -326,58 +290,46 @@ public class BasicRESTfulParser extends AbstractDocumentParser<File, RESTfulPars
 				data.addProduce(s);
 			}
 		}
-		return data;
-	}
-
-	public class ClassData {
-		private String path;
-		private Set<String> consumes;
-		private Set<String> produces;
-
-		public ClassData() {
-			path = "";
-			consumes = new HashSet<String>();
-			produces = new HashSet<String>();
-		}
-
-		public ClassData(final ClassData data) {
-			path = data.path;
-			consumes = new HashSet<String>(data.consumes);
-			produces = new HashSet<String>(data.produces);
-		}
 
-		public void setPath(final String path) {
-			this.path = path;
-		}
-
-		public String getPath() {
-			return path;
-		}
-
-		public void addConsume(final String consume) {
-			consumes.add(consume);
+		Class<?>[] types = method.getParameterTypes();
+		Annotation[][] annotations = method.getParameterAnnotations();
+		for (int i = 0; i < types.length; i++) {
+			boolean annotated = false;
+			for (Annotation annotation : annotations[i]) {
+				if (annotation instanceof PathParam) {
+					data.addParameter(new ParameterData(((PathParam) annotation).value(), ParameterData.PATH, toTypeName(types[i])));
+				} else if (annotation instanceof QueryParam) {
+					data.addParameter(new ParameterData(((QueryParam) annotation).value(), ParameterData.QUERY, toTypeName(types[i])));
+				} else if (annotation instanceof HeaderParam) {
+					data.addParameter(new ParameterData(((HeaderParam) annotation).value(), ParameterData.HEADER, toTypeName(types[i])));
+				}
+				// JAX-RSのアノテーションが付与されていないパラメーターをリクエストボディとする
+				annotated |= annotation.annotationType().getName().startsWith("javax.ws.rs.");
+			}
+			if (!annotated && data.getRequestType().isEmpty()) {
+				data.setRequestType(toTypeName(types[i]));
+			}
 		}
-
-		public void addProduce(final String produce) {
-			produces.add(produce);
+		if (void.class != method.getReturnType()) {
+			data.setResponseType(toTypeName(method.getReturnType()));
 		}
+		return data;
 	}
 
-	public class MethodData extends ClassData {
-
-		private Set<String> methodTypes;
-
-		public MethodData() {
-			methodTypes = new HashSet<String>();
-		}
-
-		public MethodData(final ClassData data) {
-			super(data);
-			methodTypes = new HashSet<String>();
-		}
-
-		public void addMethodType(final String type) {
-			methodTypes.add(type);
+	/**
+	 * 型名を取得する。
+	 *
+	 * <p>
+	 * バイトコード解析と同じく、配列は{@code int[]}の形式、入れ子のクラスはバイナリ名とします。
+	 * </p>
+	 *
+	 * @param type 型
+	 * @return 型名
+	 */
+	private static String toTypeName(final Class<?> type) {
+		if (type.isArray()) {
+			return toTypeName(type.getComponentType()) + "[]";
 		}
+		return type.getName();
 	}
 }
@@ -0,0 +1,453 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.azkfw.document.tools.archive.ArchiveReader;
+
+/**
+ * このクラスは、クラスをロードせずにバイトコードからJAX-RS解析を行うクラスです。
+ *
+ * <p>
+ * クラスファイルの定数プールとアノテーション属性を直接読み込む為、静的初期化子は実行されず、 依存ライブラリが存在しない場合でも解析できます。
+ * スーパークラスおよびインタフェースに定義されたアノテーションは、同一の解析対象内に存在する場合のみ継承されます。
+ * </p>
+ * <p>
+ * アノテーションの解析前に{@link ClassFilePrefilter}により定数プールを走査し、JAX-RSの参照を持たないクラスを除外します。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public class BytecodeRESTfulParser extends AbstractRESTfulParser {
+
+	private static final String PATH = "Ljavax/ws/rs/Path;";
+	private static final String CONSUMES = "Ljavax/ws/rs/Consumes;";
+	private static final String PRODUCES = "Ljavax/ws/rs/Produces;";
+
+	private static final String[][] PARAMETER_TYPES = { { "Ljavax/ws/rs/PathParam;", ParameterData.PATH },
+			{ "Ljavax/ws/rs/QueryParam;", ParameterData.QUERY }, { "Ljavax/ws/rs/HeaderParam;", ParameterData.HEADER } };
+
+	/** JAX-RSのアノテーションの記述子の接頭辞。いずれも付与されていないパラメーターをリクエストボディとする */
+	private static final String JAX_RS_PREFIX = "Ljavax/ws/rs/";
+
+	private static final String[][] METHOD_TYPES = { { "Ljavax/ws/rs/GET;", "GET" }, { "Ljavax/ws/rs/POST;", "POST" },
+			{ "Ljavax/ws/rs/PUT;", "PUT" }, { "Ljavax/ws/rs/DELETE;", "DELETE" }, { "Ljavax/ws/rs/HEAD;", "HEAD" },
+			{ "Ljavax/ws/rs/OPTIONS;", "OPTIONS" } };
+
+	private ClassFilePrefilter prefilter;
+
+	private RESTfulScanCache cache;
+
+	private AtomicLong skippedClassCount;
+	private AtomicLong parsedClassCount;
+
+	public BytecodeRESTfulParser() {
+		prefilter = new ClassFilePrefilter();
+		skippedClassCount = new AtomicLong();
+		parsedClassCount = new AtomicLong();
+	}
+
+	/**
+	 * 前処理フィルターを設定する。
+	 *
+	 * @param prefilter フィルター。<code>null</code>の場合、全てのクラスを解析する
+	 */
+	public final void setPrefilter(final ClassFilePrefilter prefilter) {
+		this.prefilter = prefilter;
+	}
+
+	/**
+	 * 解析結果のキャッシュを設定する。
+	 *
+	 * <p>
+	 * キャッシュに有効な結果が存在するクラスは、クラスファイルを読み込まずに結果を再利用します。
+	 * </p>
+	 *
+	 * @param cache キャッシュ。<code>null</code>の場合、キャッシュを使用しない
+	 */
+	public final void setCache(final RESTfulScanCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * キャッシュのシグネチャを取得する。
+	 *
+	 * <p>
+	 * 解析対象とするアノテーションの記述子および前処理フィルターの記述子から生成します。
+	 * </p>
+	 *
+	 * @return シグネチャ
+	 */
+	public final String getCacheSignature() {
+		StringBuilder s = new StringBuilder();
+		s.append(PATH).append(CONSUMES).append(PRODUCES);
+		for (String[] methodType : METHOD_TYPES) {
+			s.append(methodType[0]);
+		}
+		for (String[] parameterType : PARAMETER_TYPES) {
+			s.append(parameterType[0]);
+		}
+		s.append('|');
+		if (null != prefilter) {
+			for (String descriptor : prefilter.getDescriptors()) {
+				s.append(descriptor);
+			}
+		}
+		return s.toString();
+	}
+
+	/**
+	 * 直前の解析で前処理フィルターにより除外したクラス数を取得する。
+	 *
+	 * @return クラス数
+	 */
+	public final long getSkippedClassCount() {
+		return skippedClassCount.get();
+	}
+
+	/**
+	 * 直前の解析でアノテーションを解析したクラス数を取得する。
+	 *
+	 * @return クラス数
+	 */
+	public final long getParsedClassCount() {
+		return parsedClassCount.get();
+	}
+
+	@Override
+	protected final void doInitialize() {
+
+	}
+
+	@Override
+	protected final void doRelease() {
+
+	}
+
+	@Override
+	protected final void doParse(final File document) {
+		resetStatistics();
+		skippedClassCount.set(0);
+		parsedClassCount.set(0);
+
+		if (null != cache) {
+			cache.validate(getCacheSignature());
+		}
+
+		ClassFileSource source = null;
+		try {
+			source = ClassFileSources.open(document);
+
+			analyze(source.getClassNames(), getClassAnalyzer(source, cache));
+
+			if (ClassFileSources.isWar(document)) {
+				doParseLibraries(document);
+			}
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		} finally {
+			if (null != source) {
+				try {
+					source.close();
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * warファイル内の対象ライブラリを解析する。
+	 *
+	 * <p>
+	 * ライブラリの解析はライブラリ内で完結し、継承元はライブラリ内のクラスからのみ解決します。
+	 * キャッシュが設定されている場合、warファイルの中央ディレクトリに記録されたjarファイルのCRC-32とサイズが一致するライブラリは、
+	 * jarファイルを展開せずに前回の結果を通知します。
+	 * </p>
+	 *
+	 * @param document warファイル
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	private void doParseLibraries(final File document) throws IOException {
+		ArchiveReader war = ArchiveReader.open(document);
+		try {
+			for (String name : ClassFileSources.getLibraryNames(war)) {
+				if (!isTargetLibrary(name)) {
+					continue;
+				}
+				int index = war.indexOf(name);
+
+				String key = null;
+				if (null != cache) {
+					key = getLibraryKey(war.getCrc(index), war.getSize(index), getTargetPackage());
+					List<MethodData> result = cache.getLibrary(key);
+					if (null != result) {
+						for (MethodData methodData : result) {
+							onFindMethod(methodData);
+						}
+						continue;
+					}
+				}
+
+				ByteBuffer jar = war.read(index);
+				ClassFileSource library = new ArchiveClassFileSource(new ArchiveReader(jar), "");
+				try {
+					List<String> classNames = library.getClassNames();
+					final Map<String, List<MethodData>> results = new ConcurrentHashMap<String, List<MethodData>>();
+					final ClassAnalyzer analyzer = getClassAnalyzer(library, null);
+					analyze(classNames, new ClassAnalyzer() {
+						@Override
+						public List<MethodData> analyze(final String className) throws Exception {
+							List<MethodData> result = analyzer.analyze(className);
+							if (null != result && !result.isEmpty()) {
+								results.put(className, result);
+							}
+							return result;
+						}
+					});
+
+					if (null != key) {
+						List<MethodData> result = new ArrayList<MethodData>();
+						for (String className : classNames) {
+							if (results.containsKey(className)) {
+								result.addAll(results.get(className));
+							}
+						}
+						cache.putLibrary(key, result);
+					}
+				} finally {
+					library.close();
+				}
+			}
+		} finally {
+			war.close();
+		}
+	}
+
+	/**
+	 * ライブラリのキャッシュのキーを生成する。
+	 *
+	 * @param crc jarファイルのCRC-32
+	 * @param size jarファイルのサイズ
+	 * @param targetPackage 解析対象パッケージ。未設定の場合は<code>null</code>
+	 * @return キー（{@code %08x%016x@package}形式）
+	 */
+	static String getLibraryKey(final long crc, final long size, final String targetPackage) {
+		StringBuilder s = new StringBuilder();
+		s.append(String.format("%08x%016x", crc, size));
+		// 解析対象パッケージにより結果が異なる為、キーに含める
+		if (null != targetPackage) {
+			s.append('@').append(targetPackage);
+		}
+		return s.toString();
+	}
+
+	private ClassAnalyzer getClassAnalyzer(final ClassFileSource source, final RESTfulScanCache scanCache) {
+		return new ClassAnalyzer() {
+			@Override
+			public List<MethodData> analyze(final String className) throws IOException {
+				long hash = 0;
+				ClassFileEntry entry = null;
+				if (null != scanCache) {
+					entry = source.getClassFileEntry(className);
+					hash = (null == entry) ? -1 : entry.getHash();
+					List<MethodData> result = scanCache.get(className, hash, source);
+					if (null != result) {
+						return result;
+					}
+				}
+
+				// ハッシュ値の計算時に読み込んだバイト列があれば再度読み込まない
+				ByteBuffer buffer = (null == entry) ? source.getClassFile(className) : entry.getBuffer();
+				if (null != prefilter && !prefilter.accept(buffer)) {
+					skippedClassCount.incrementAndGet();
+					if (null != scanCache) {
+						scanCache.put(className, hash, null, null);
+					}
+					return null;
+				}
+				parsedClassCount.incrementAndGet();
+
+				Set<String> visited = new HashSet<String>();
+				List<MethodData> result = doParse(source, new ClassFileReader(buffer), visited);
+				if (null != scanCache) {
+					Map<String, Long> dependencies = new HashMap<String, Long>();
+					for (String name : visited) {
+						if (!name.equals(className)) {
+							dependencies.put(name, Long.valueOf(source.getClassFileHash(name)));
+						}
+					}
+					scanCache.put(className, hash, dependencies, result);
+				}
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * クラスファイルを解析する。
+	 *
+	 * @param source 取得元
+	 * @param reader クラスファイル
+	 * @return リソースメソッド情報のリスト
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	protected final List<MethodData> doParse(final ClassFileSource source, final ClassFileReader reader) throws IOException {
+		return doParse(source, reader, new HashSet<String>());
+	}
+
+	private List<MethodData> doParse(final ClassFileSource source, final ClassFileReader reader, final Set<String> visited)
+			throws IOException {
+		List<MethodData> result = new ArrayList<MethodData>();
+
+		ClassFileAnnotation path = reader.getAnnotation(PATH);
+		if (null != path) {
+			ClassData classData = getClassData(reader, path);
+
+			Set<String> resolved = new HashSet<String>();
+			getMethodData(source, reader, classData, resolved, visited, result);
+		}
+
+		return result;
+	}
+
+	private void getMethodData(final ClassFileSource source, final ClassFileReader reader, final ClassData classData,
+			final Set<String> resolved, final Set<String> visited, final List<MethodData> result) throws IOException {
+		if (!visited.add(reader.getClassName())) {
+			return;
+		}
+
+		for (ClassFileMethod method : reader.getMethods()) {
+			if (!method.isPublic() || method.isStatic() || method.isSynthetic() || method.getName().startsWith("<")) {
+				continue;
+			}
+			String signature = method.getName() + method.getDescriptor();
+			if (resolved.contains(signature)) {
+				continue;
+			}
+			MethodData methodData = getMethodData(method, classData);
+			if (null != methodData) {
+				resolved.add(signature);
+				result.add(methodData);
+			}
+		}
+
+		// アノテーションが付与されていないメソッドはスーパータイプの定義を継承する
+		List<String> superNames = new ArrayList<String>();
+		if (null != reader.getSuperName() && !"java.lang.Object".equals(reader.getSuperName())) {
+			superNames.add(reader.getSuperName());
+		}
+		for (String name : reader.getInterfaces()) {
+			superNames.add(name);
+		}
+		for (String name : superNames) {
+			ByteBuffer buffer = source.getClassFile(name);
+			if (null != buffer) {
+				getMethodData(source, new ClassFileReader(buffer), classData, resolved, visited, result);
+			} else {
+				// 存在しない継承元も依存として記録し、後から追加された場合にキャッシュを無効とする
+				visited.add(name);
+			}
+		}
+	}
+
+	private ClassData getClassData(final ClassFileReader reader, final ClassFileAnnotation path) {
+		ClassData data = new ClassData();
+		data.setClassName(reader.getClassName());
+		data.setPath(path.getString("value"));
+		ClassFileAnnotation consumes = reader.getAnnotation(CONSUMES);
+		if (null != consumes) {
+			for (String s : consumes.getStrings("value")) {
+				data.addConsume(s);
+			}
+		}
+		ClassFileAnnotation produces = reader.getAnnotation(PRODUCES);
+		if (null != produces) {
+			for (String s : produces.getStrings("value")) {
+				data.addProduce(s);
+			}
+		}
+		return data;
+	}
+
+	private MethodData getMethodData(final ClassFileMethod method, final ClassData clazz) {
+		MethodData data = new MethodData(clazz);
+		data.setMethodName(method.getName());
+
+		for (String[] methodType : METHOD_TYPES) {
+			if (null != method.getAnnotation(methodType[0])) {
+				data.addMethodType(methodType[1]);
+			}
+		}
+		ClassFileAnnotation path = method.getAnnotation(PATH);
+		if (null != path) {
+			data.setPath(toPath(clazz.getPath(), path.getString("value")));
+		} else if (!data.getMethodTypes().isEmpty()) {
+			data.setPath(toPath(clazz.getPath(), null));
+		} else {
+			return null;
+		}
+
+		ClassFileAnnotation consumes = method.getAnnotation(CONSUMES);
+		if (null != consumes) {
+			for (String s : consumes.getStrings("value")) {
+				data.addConsume(s);
+			}
+		}
+		ClassFileAnnotation produces = method.getAnnotation(PRODUCES);
+		if (null != produces) {
+			for (String s : produces.getStrings("value")) {
+				data.addProduce(s);
+			}
+		}
+
+		String[] types = method.getParameterTypes();
+		for (int i = 0; i < types.length; i++) {
+			boolean annotated = false;
+			for (ClassFileAnnotation annotation : method.getParameterAnnotations(i)) {
+				for (String[] parameterType : PARAMETER_TYPES) {
+					if (parameterType[0].equals(annotation.getType())) {
+						data.addParameter(new ParameterData(annotation.getString("value"), parameterType[1], types[i]));
+					}
+				}
+				annotated |= annotation.getType().startsWith(JAX_RS_PREFIX);
+			}
+			if (!annotated && data.getRequestType().isEmpty()) {
+				data.setRequestType(types[i]);
+			}
+		}
+		String returnType = method.getReturnType();
+		if (!"void".equals(returnType)) {
+			data.setResponseType(returnType);
+		}
+		return data;
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * このクラスは、JAX-RSリソースクラスの情報を保持するクラスです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/02
+ * @author kawakicchi
+ */
+public class ClassData {
+
+	private String className;
+	private String path;
+	private Set<String> consumes;
+	private Set<String> produces;
+
+	public ClassData() {
+		className = "";
+		path = "";
+		consumes = new LinkedHashSet<String>();
+		produces = new LinkedHashSet<String>();
+	}
+
+	public ClassData(final ClassData data) {
+		className = data.className;
+		path = data.path;
+		consumes = new LinkedHashSet<String>(data.consumes);
+		produces = new LinkedHashSet<String>(data.produces);
+	}
+
+	public void setClassName(final String className) {
+		this.className = className;
+	}
+
+	public String getClassName() {
+		return className;
+	}
+
+	public void setPath(final String path) {
+		this.path = path;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public void addConsume(final String consume) {
+		consumes.add(consume);
+	}
+
+	public Set<String> getConsumes() {
+		return Collections.unmodifiableSet(consumes);
+	}
+
+	public void addProduce(final String produce) {
+		produces.add(produce);
+	}
+
+	public Set<String> getProduces() {
+		return Collections.unmodifiableSet(produces);
+	}
+}
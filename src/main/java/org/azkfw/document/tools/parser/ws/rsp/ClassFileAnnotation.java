@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * このクラスは、クラスファイルから読み込んだアノテーション情報を保持するクラスです。
+ *
+ * <p>
+ * 要素の値は、文字列・数値・列挙定数名・クラス記述子の場合はそれぞれの値、配列の場合は{@code Object[]}、 ネストしたアノテーションの場合は
+ * {@link ClassFileAnnotation}として保持します。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/02
+ * @author kawakicchi
+ */
+public final class ClassFileAnnotation {
+
+	private final String type;
+	private final Map<String, Object> values;
+
+	public ClassFileAnnotation(final String type) {
+		this.type = type;
+		values = new LinkedHashMap<String, Object>();
+	}
+
+	/**
+	 * アノテーションの型記述子を取得する。
+	 *
+	 * @return 型記述子（例: {@code Ljavax/ws/rs/Path;}）
+	 */
+	public String getType() {
+		return type;
+	}
+
+	void putValue(final String name, final Object value) {
+		values.put(name, value);
+	}
+
+	public Object getValue(final String name) {
+		return values.get(name);
+	}
+
+	public String getString(final String name) {
+		Object value = values.get(name);
+		if (value instanceof String) {
+			return (String) value;
+		}
+		return null;
+	}
+
+	public String[] getStrings(final String name) {
+		Object value = values.get(name);
+		if (value instanceof String) {
+			return new String[] { (String) value };
+		} else if (value instanceof Object[]) {
+			Object[] array = (Object[]) value;
+			String[] strings = new String[array.length];
+			for (int i = 0; i < array.length; i++) {
+				strings[i] = String.valueOf(array[i]);
+			}
+			return strings;
+		}
+		return new String[] {};
+	}
+}
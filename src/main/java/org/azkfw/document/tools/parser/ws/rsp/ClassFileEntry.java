@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * このクラスは、クラスファイルのハッシュ値とバイト列を保持するクラスです。
+ *
+ * <p>
+ * ハッシュ値の計算にバイト列の読み込みが必要な取得元は、読み込んだバイト列を保持して返します。
+ * それ以外の取得元では、バイト列は{@link #getBuffer()}の初回の呼び出し時に取得元から読み込みます。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public final class ClassFileEntry {
+
+	private final ClassFileSource source;
+	private final String className;
+	private final long hash;
+	private ByteBuffer buffer;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param source 取得元
+	 * @param className バイナリ名
+	 * @param hash ハッシュ値
+	 * @param buffer バイト列。読み込んでいない場合は<code>null</code>
+	 */
+	public ClassFileEntry(final ClassFileSource source, final String className, final long hash, final ByteBuffer buffer) {
+		this.source = source;
+		this.className = className;
+		this.hash = hash;
+		this.buffer = buffer;
+	}
+
+	/**
+	 * ハッシュ値を取得する。
+	 *
+	 * @return ハッシュ値
+	 * @see ClassFileSource#getClassFileHash(String)
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	/**
+	 * バイト列を取得する。
+	 *
+	 * @return バイト列
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public ByteBuffer getBuffer() throws IOException {
+		if (null == buffer) {
+			buffer = source.getClassFile(className);
+		}
+		return buffer;
+	}
+}
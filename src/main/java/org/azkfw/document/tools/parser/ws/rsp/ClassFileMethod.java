@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * このクラスは、クラスファイルから読み込んだメソッド情報を保持するクラスです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/25
+ * @author kawakicchi
+ */
+public final class ClassFileMethod {
+
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_STATIC = 0x0008;
+	private static final int ACC_BRIDGE = 0x0040;
+	private static final int ACC_SYNTHETIC = 0x1000;
+
+	private final int access;
+	private final String name;
+	private final String descriptor;
+	private final List<ClassFileAnnotation> annotations;
+	private List<List<ClassFileAnnotation>> parameterAnnotations;
+
+	public ClassFileMethod(final int access, final String name, final String descriptor) {
+		this.access = access;
+		this.name = name;
+		this.descriptor = descriptor;
+		annotations = new ArrayList<ClassFileAnnotation>();
+		parameterAnnotations = Collections.emptyList();
+	}
+
+	public int getAccess() {
+		return access;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDescriptor() {
+		return descriptor;
+	}
+
+	public boolean isPublic() {
+		return 0 != (access & ACC_PUBLIC);
+	}
+
+	public boolean isStatic() {
+		return 0 != (access & ACC_STATIC);
+	}
+
+	public boolean isSynthetic() {
+		return 0 != (access & (ACC_SYNTHETIC | ACC_BRIDGE));
+	}
+
+	void addAnnotation(final ClassFileAnnotation annotation) {
+		annotations.add(annotation);
+	}
+
+	public List<ClassFileAnnotation> getAnnotations() {
+		return annotations;
+	}
+
+	public ClassFileAnnotation getAnnotation(final String type) {
+		for (ClassFileAnnotation annotation : annotations) {
+			if (annotation.getType().equals(type)) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	void setParameterAnnotations(final List<List<ClassFileAnnotation>> parameterAnnotations) {
+		this.parameterAnnotations = parameterAnnotations;
+	}
+
+	/**
+	 * パラメーターのアノテーションを取得する。
+	 *
+	 * <p>
+	 * {@code RuntimeVisibleParameterAnnotations}属性のパラメーター数が記述子より少ない場合（コンパイラが暗黙のパラメーターを含めない場合）、
+	 * 末尾のパラメーターに対応付けます。
+	 * </p>
+	 *
+	 * @param index パラメーターの位置（0から）
+	 * @return アノテーションのリスト
+	 */
+	public List<ClassFileAnnotation> getParameterAnnotations(final int index) {
+		int offset = getParameterTypes().length - parameterAnnotations.size();
+		if (index < offset || index - offset >= parameterAnnotations.size()) {
+			return Collections.emptyList();
+		}
+		return parameterAnnotations.get(index - offset);
+	}
+
+	/**
+	 * 記述子からパラメーターの型を取得する。
+	 *
+	 * @return Javaの型名の配列（例: {@code java.lang.String}、{@code int[]}）
+	 */
+	public String[] getParameterTypes() {
+		List<String> types = new ArrayList<String>();
+		int[] position = { 1 };
+		while (')' != descriptor.charAt(position[0])) {
+			types.add(toTypeName(descriptor, position));
+		}
+		return types.toArray(new String[types.size()]);
+	}
+
+	/**
+	 * 記述子から戻り値の型を取得する。
+	 *
+	 * @return Javaの型名（例: {@code void}、{@code java.lang.String}）
+	 */
+	public String getReturnType() {
+		int[] position = { descriptor.indexOf(')') + 1 };
+		return toTypeName(descriptor, position);
+	}
+
+	private static String toTypeName(final String descriptor, final int[] position) {
+		char c = descriptor.charAt(position[0]++);
+		switch (c) {
+		case 'B':
+			return "byte";
+		case 'C':
+			return "char";
+		case 'D':
+			return "double";
+		case 'F':
+			return "float";
+		case 'I':
+			return "int";
+		case 'J':
+			return "long";
+		case 'S':
+			return "short";
+		case 'Z':
+			return "boolean";
+		case 'V':
+			return "void";
+		case '[':
+			return toTypeName(descriptor, position) + "[]";
+		default:
+			int end = descriptor.indexOf(';', position[0]);
+			String name = descriptor.substring(position[0], end).replace('/', '.');
+			position[0] = end + 1;
+			return name;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * このクラスは、定数プールのみを走査してJAX-RS解析の対象外となるクラスを除外するクラスです。
+ *
+ * <p>
+ * 定数プールのUTF-8要素に指定した記述子（既定では{@code Ljavax/ws/rs/Path;}）が1つも含まれない場合、 そのクラスはリソースクラスになり得ない為、
+ * アノテーションの解析を行わずに除外します。文字列へのデコードは行わず、バイト列のまま比較します。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/06
+ * @author kawakicchi
+ */
+public final class ClassFilePrefilter {
+
+	/** 既定の対象記述子 */
+	public static final String[] DEFAULT_DESCRIPTORS = { "Ljavax/ws/rs/Path;" };
+
+	private final String[] descriptors;
+	private final byte[][] targets;
+
+	public ClassFilePrefilter() {
+		this(DEFAULT_DESCRIPTORS);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param descriptors いずれかを含むクラスを対象とする記述子
+	 */
+	public ClassFilePrefilter(final String... descriptors) {
+		this.descriptors = descriptors.clone();
+		Charset charset = Charset.forName("UTF-8");
+		targets = new byte[descriptors.length][];
+		for (int i = 0; i < descriptors.length; i++) {
+			targets[i] = descriptors[i].getBytes(charset);
+		}
+	}
+
+	/**
+	 * 対象記述子を取得する。
+	 *
+	 * @return 記述子
+	 */
+	public String[] getDescriptors() {
+		return descriptors.clone();
+	}
+
+	/**
+	 * 解析対象となり得るクラスか判断する。
+	 *
+	 * <p>
+	 * クラスファイルの形式が不正な場合は、後続の解析でエラーとなるよう<code>true</code>を返します。
+	 * </p>
+	 *
+	 * @param buffer クラスファイルのバイト列
+	 * @return 対象となり得る場合、<code>true</code>
+	 */
+	public boolean accept(final ByteBuffer buffer) {
+		int position = buffer.position();
+		try {
+			if (ClassFileReader.MAGIC != buffer.getInt(position)) {
+				return true;
+			}
+			position += 8;
+			int count = buffer.getShort(position) & 0xFFFF;
+			position += 2;
+			for (int i = 1; i < count; i++) {
+				int tag = buffer.get(position) & 0xFF;
+				if (ClassFileReader.CONSTANT_UTF8 == tag) {
+					int length = buffer.getShort(position + 1) & 0xFFFF;
+					if (matches(buffer, position + 3, length)) {
+						return true;
+					}
+					position += 3 + length;
+				} else {
+					position += ClassFileReader.getConstantLength(buffer, position);
+					if (ClassFileReader.CONSTANT_LONG == tag || ClassFileReader.CONSTANT_DOUBLE == tag) {
+						i++;
+					}
+				}
+			}
+		} catch (IOException ex) {
+			return true;
+		} catch (IndexOutOfBoundsException ex) {
+			return true;
+		}
+		return false;
+	}
+
+	private boolean matches(final ByteBuffer buffer, final int offset, final int length) {
+		for (byte[] target : targets) {
+			if (target.length == length && equals(buffer, offset, target)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean equals(final ByteBuffer buffer, final int offset, final byte[] target) {
+		for (int i = 0; i < target.length; i++) {
+			if (target[i] != buffer.get(offset + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,409 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * このクラスは、クラスファイルのバイトコードを直接解析するクラスです。
+ *
+ * <p>
+ * クラスをロードせずに、定数プールと{@code RuntimeVisibleAnnotations}属性からクラスおよびメソッドのアノテーション情報を、
+ * {@code RuntimeVisibleParameterAnnotations}属性からメソッドのパラメーターのアノテーション情報を取得します。
+ * そのため、静的初期化子の実行や依存クラスの解決は行われません。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/25
+ * @author kawakicchi
+ */
+public final class ClassFileReader {
+
+	static final int MAGIC = 0xCAFEBABE;
+
+	static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_FLOAT = 4;
+	static final int CONSTANT_LONG = 5;
+	static final int CONSTANT_DOUBLE = 6;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+	private static final int CONSTANT_METHOD_TYPE = 16;
+	private static final int CONSTANT_DYNAMIC = 17;
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+	private static final int CONSTANT_MODULE = 19;
+	private static final int CONSTANT_PACKAGE = 20;
+
+	private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+	private static final String RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+
+	private final ByteBuffer buffer;
+	private int position;
+
+	private int[] offsets;
+	private String[] strings;
+
+	private int access;
+	private String className;
+	private String superName;
+	private String[] interfaces;
+	private List<ClassFileAnnotation> annotations;
+	private List<ClassFileMethod> methods;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param buffer クラスファイルのバイト列（positionからlimitまで）
+	 * @throws IOException クラスファイルの形式が不正な場合
+	 */
+	public ClassFileReader(final ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		position = buffer.position();
+		annotations = new ArrayList<ClassFileAnnotation>();
+		methods = new ArrayList<ClassFileMethod>();
+		try {
+			read();
+		} catch (IndexOutOfBoundsException ex) {
+			throw new IOException("Truncated class file.", ex);
+		}
+	}
+
+	public ClassFileReader(final byte[] bytes) throws IOException {
+		this(ByteBuffer.wrap(bytes));
+	}
+
+	public int getAccess() {
+		return access;
+	}
+
+	/**
+	 * クラス名を取得する。
+	 *
+	 * @return バイナリ名（例: {@code org.azkfw.Sample$Inner}）
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * スーパークラス名を取得する。
+	 *
+	 * @return バイナリ名。{@code java.lang.Object}自身の場合は{@code null}
+	 */
+	public String getSuperName() {
+		return superName;
+	}
+
+	public String[] getInterfaces() {
+		return interfaces;
+	}
+
+	public List<ClassFileAnnotation> getAnnotations() {
+		return annotations;
+	}
+
+	public ClassFileAnnotation getAnnotation(final String type) {
+		for (ClassFileAnnotation annotation : annotations) {
+			if (annotation.getType().equals(type)) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	public List<ClassFileMethod> getMethods() {
+		return methods;
+	}
+
+	private void read() throws IOException {
+		if (MAGIC != buffer.getInt(position)) {
+			throw new IOException("Not a class file.");
+		}
+		position += 8;
+
+		readConstantPool();
+
+		access = readU2();
+		className = toBinaryName(readClassName(readU2()));
+		int superIndex = readU2();
+		superName = (0 == superIndex) ? null : toBinaryName(readClassName(superIndex));
+		interfaces = new String[readU2()];
+		for (int i = 0; i < interfaces.length; i++) {
+			interfaces[i] = toBinaryName(readClassName(readU2()));
+		}
+
+		// fields
+		int fieldCount = readU2();
+		for (int i = 0; i < fieldCount; i++) {
+			position += 6;
+			skipAttributes();
+		}
+
+		// methods
+		int methodCount = readU2();
+		for (int i = 0; i < methodCount; i++) {
+			int methodAccess = readU2();
+			String name = readUtf8(readU2());
+			String descriptor = readUtf8(readU2());
+			ClassFileMethod method = new ClassFileMethod(methodAccess, name, descriptor);
+			int attributeCount = readU2();
+			for (int j = 0; j < attributeCount; j++) {
+				String attributeName = readUtf8(readU2());
+				int length = readInt();
+				int end = position + length;
+				if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+					int count = readU2();
+					for (int k = 0; k < count; k++) {
+						method.addAnnotation(readAnnotation());
+					}
+				} else if (RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS.equals(attributeName)) {
+					int parameterCount = readU1();
+					List<List<ClassFileAnnotation>> parameters = new ArrayList<List<ClassFileAnnotation>>(parameterCount);
+					for (int k = 0; k < parameterCount; k++) {
+						int count = readU2();
+						List<ClassFileAnnotation> list = new ArrayList<ClassFileAnnotation>(count);
+						for (int l = 0; l < count; l++) {
+							list.add(readAnnotation());
+						}
+						parameters.add(list);
+					}
+					method.setParameterAnnotations(parameters);
+				}
+				position = end;
+			}
+			methods.add(method);
+		}
+
+		// class attributes
+		int attributeCount = readU2();
+		for (int i = 0; i < attributeCount; i++) {
+			String attributeName = readUtf8(readU2());
+			int length = readInt();
+			int end = position + length;
+			if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+				int count = readU2();
+				for (int k = 0; k < count; k++) {
+					annotations.add(readAnnotation());
+				}
+			}
+			position = end;
+		}
+	}
+
+	private void readConstantPool() throws IOException {
+		int count = readU2();
+		offsets = new int[count];
+		strings = new String[count];
+		for (int i = 1; i < count; i++) {
+			offsets[i] = position;
+			int tag = buffer.get(position) & 0xFF;
+			position += getConstantLength(buffer, position);
+			if (CONSTANT_LONG == tag || CONSTANT_DOUBLE == tag) {
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * 定数プールの要素のバイト長を取得する。
+	 *
+	 * @param buffer バッファ
+	 * @param offset 要素の開始位置（タグの位置）
+	 * @return タグを含むバイト長
+	 * @throws IOException 不正なタグの場合
+	 */
+	static int getConstantLength(final ByteBuffer buffer, final int offset) throws IOException {
+		int tag = buffer.get(offset) & 0xFF;
+		switch (tag) {
+		case CONSTANT_UTF8:
+			return 3 + (buffer.getShort(offset + 1) & 0xFFFF);
+		case CONSTANT_INTEGER:
+		case CONSTANT_FLOAT:
+		case CONSTANT_FIELDREF:
+		case CONSTANT_METHODREF:
+		case CONSTANT_INTERFACE_METHODREF:
+		case CONSTANT_NAME_AND_TYPE:
+		case CONSTANT_DYNAMIC:
+		case CONSTANT_INVOKE_DYNAMIC:
+			return 5;
+		case CONSTANT_LONG:
+		case CONSTANT_DOUBLE:
+			return 9;
+		case CONSTANT_CLASS:
+		case CONSTANT_STRING:
+		case CONSTANT_METHOD_TYPE:
+		case CONSTANT_MODULE:
+		case CONSTANT_PACKAGE:
+			return 3;
+		case CONSTANT_METHOD_HANDLE:
+			return 4;
+		default:
+			throw new IOException("Invalid constant pool tag: " + tag);
+		}
+	}
+
+	private void skipAttributes() {
+		int count = readU2();
+		for (int i = 0; i < count; i++) {
+			position += 2;
+			int length = readInt();
+			position += length;
+		}
+	}
+
+	private ClassFileAnnotation readAnnotation() throws IOException {
+		ClassFileAnnotation annotation = new ClassFileAnnotation(readUtf8(readU2()));
+		int count = readU2();
+		for (int i = 0; i < count; i++) {
+			String name = readUtf8(readU2());
+			annotation.putValue(name, readElementValue());
+		}
+		return annotation;
+	}
+
+	private Object readElementValue() throws IOException {
+		int tag = readU1();
+		switch (tag) {
+		case 'B':
+		case 'C':
+		case 'I':
+		case 'S':
+		case 'Z':
+		case 'D':
+		case 'F':
+		case 'J':
+			return readConstant(readU2());
+		case 's':
+			return readUtf8(readU2());
+		case 'e':
+			position += 2;
+			return readUtf8(readU2());
+		case 'c':
+			return readUtf8(readU2());
+		case '@':
+			return readAnnotation();
+		case '[':
+			Object[] values = new Object[readU2()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = readElementValue();
+			}
+			return values;
+		default:
+			throw new IOException("Invalid element value tag: " + (char) tag);
+		}
+	}
+
+	private Object readConstant(final int index) throws IOException {
+		int offset = offsets[index];
+		int tag = buffer.get(offset) & 0xFF;
+		switch (tag) {
+		case CONSTANT_INTEGER:
+			return Integer.valueOf(buffer.getInt(offset + 1));
+		case CONSTANT_FLOAT:
+			return Float.valueOf(buffer.getFloat(offset + 1));
+		case CONSTANT_LONG:
+			return Long.valueOf(buffer.getLong(offset + 1));
+		case CONSTANT_DOUBLE:
+			return Double.valueOf(buffer.getDouble(offset + 1));
+		default:
+			throw new IOException("Invalid constant value index: " + index);
+		}
+	}
+
+	private String readClassName(final int index) throws IOException {
+		int offset = offsets[index];
+		if (CONSTANT_CLASS != (buffer.get(offset) & 0xFF)) {
+			throw new IOException("Invalid class index: " + index);
+		}
+		return readUtf8(readU2At(offset + 1));
+	}
+
+	private String readUtf8(final int index) throws IOException {
+		String string = strings[index];
+		if (null == string) {
+			int offset = offsets[index];
+			if (CONSTANT_UTF8 != (buffer.get(offset) & 0xFF)) {
+				throw new IOException("Invalid utf8 index: " + index);
+			}
+			int length = readU2At(offset + 1);
+			string = decodeModifiedUtf8(buffer, offset + 3, length);
+			strings[index] = string;
+		}
+		return string;
+	}
+
+	private int readU1() {
+		return buffer.get(position++) & 0xFF;
+	}
+
+	private int readU2() {
+		int value = readU2At(position);
+		position += 2;
+		return value;
+	}
+
+	private int readU2At(final int offset) {
+		return buffer.getShort(offset) & 0xFFFF;
+	}
+
+	private int readInt() {
+		int value = buffer.getInt(position);
+		position += 4;
+		return value;
+	}
+
+	private static String toBinaryName(final String internalName) {
+		return internalName.replace('/', '.');
+	}
+
+	/**
+	 * 修正UTF-8形式のバイト列を文字列にデコードする。
+	 *
+	 * @param buffer バッファ
+	 * @param offset 開始位置
+	 * @param length バイト長
+	 * @return 文字列
+	 */
+	static String decodeModifiedUtf8(final ByteBuffer buffer, final int offset, final int length) {
+		char[] chars = new char[length];
+		int count = 0;
+		int index = offset;
+		int end = offset + length;
+		while (index < end) {
+			int c = buffer.get(index++) & 0xFF;
+			if (c < 0x80) {
+				chars[count++] = (char) c;
+			} else if (0xC0 == (c & 0xE0)) {
+				chars[count++] = (char) (((c & 0x1F) << 6) | (buffer.get(index++) & 0x3F));
+			} else {
+				int c2 = buffer.get(index++) & 0x3F;
+				int c3 = buffer.get(index++) & 0x3F;
+				chars[count++] = (char) (((c & 0x0F) << 12) | (c2 << 6) | c3);
+			}
+		}
+		return new String(chars, 0, count);
+	}
+}
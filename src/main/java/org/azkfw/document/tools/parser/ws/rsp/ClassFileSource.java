@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * このインターフェースは、解析対象のクラスファイルの取得元を定義する為のインターフェースです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public interface ClassFileSource extends Closeable {
+
+	/**
+	 * 取得元に含まれるクラス名の一覧を取得する。
+	 *
+	 * @return バイナリ名のリスト
+	 */
+	public List<String> getClassNames();
+
+	/**
+	 * クラスファイルのバイト列を取得する。
+	 *
+	 * @param className バイナリ名
+	 * @return バイト列。取得元に存在しない場合は{@code null}
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public ByteBuffer getClassFile(final String className) throws IOException;
+
+	/**
+	 * クラスファイルのハッシュ値を取得する。
+	 *
+	 * <p>
+	 * ハッシュ値はクラスファイルのCRC-32を上位32ビット、バイト長を下位32ビットとした値です。
+	 * アーカイブの場合は中央ディレクトリの値を用いる為、エントリを展開しません。
+	 * </p>
+	 *
+	 * @param className バイナリ名
+	 * @return ハッシュ値。取得元に存在しない場合は{@code -1}
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public long getClassFileHash(final String className) throws IOException;
+
+	/**
+	 * クラスファイルのハッシュ値とバイト列を取得する。
+	 *
+	 * <p>
+	 * ハッシュ値の計算にバイト列の読み込みが必要な場合、読み込んだバイト列をそのまま返す為、
+	 * {@link #getClassFileHash(String)}と{@link #getClassFile(String)}を続けて呼び出すより読み込みが少なく済みます。
+	 * </p>
+	 *
+	 * @param className バイナリ名
+	 * @return クラスファイル。取得元に存在しない場合は{@code null}
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public ClassFileEntry getClassFileEntry(final String className) throws IOException;
+}
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.azkfw.document.tools.archive.ArchiveReader;
+
+/**
+ * このクラスは、解析対象ファイルに応じた{@link ClassFileSource}を生成するクラスです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/07
+ * @author kawakicchi
+ */
+public final class ClassFileSources {
+
+	/** warファイル内のクラスパス */
+	public static final String WAR_CLASSES_PATH = "WEB-INF/classes/";
+
+	/** warファイル内のライブラリパス */
+	public static final String WAR_LIB_PATH = "WEB-INF/lib/";
+
+	private ClassFileSources() {
+	}
+
+	/**
+	 * クラスファイルの取得元を生成する。
+	 *
+	 * @param document クラスパスディレクトリ、jarファイル、またはwarファイル
+	 * @return 取得元
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public static ClassFileSource open(final File document) throws IOException {
+		if (document.isDirectory()) {
+			return new DirectoryClassFileSource(document);
+		}
+		String name = document.getName().toLowerCase();
+		if (name.endsWith(".jar")) {
+			return new ArchiveClassFileSource(document, "");
+		} else if (name.endsWith(".war")) {
+			return new ArchiveClassFileSource(document, WAR_CLASSES_PATH);
+		}
+		throw new IOException("Unsupported document: " + document.getAbsolutePath());
+	}
+
+	/**
+	 * warファイル内のライブラリのエントリ名を取得する。
+	 *
+	 * @param war warファイル
+	 * @return {@code WEB-INF/lib}直下のjarファイルのエントリ名（昇順）
+	 */
+	public static List<String> getLibraryNames(final ArchiveReader war) {
+		Charset charset = Charset.forName("UTF-8");
+		byte[] prefix = WAR_LIB_PATH.getBytes(charset);
+		byte[] suffix = ".jar".getBytes(charset);
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < war.size(); i++) {
+			if (war.startsWith(i, prefix) && war.endsWith(i, suffix)) {
+				String name = war.getName(i);
+				if (-1 == name.indexOf('/', WAR_LIB_PATH.length())) {
+					names.add(name);
+				}
+			}
+		}
+		Collections.sort(names);
+		return names;
+	}
+
+	/**
+	 * warファイルか判断する。
+	 *
+	 * @param document 解析対象ファイル
+	 * @return warファイルの場合、<code>true</code>
+	 */
+	public static boolean isWar(final File document) {
+		return document.isFile() && document.getName().toLowerCase().endsWith(".war");
+	}
+}
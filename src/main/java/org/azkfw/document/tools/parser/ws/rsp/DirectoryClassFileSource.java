@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * このクラスは、クラスパスディレクトリからクラスファイルを取得するクラスです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public class DirectoryClassFileSource implements ClassFileSource {
+
+	private File directory;
+
+	private List<String> classNames;
+
+	public DirectoryClassFileSource(final File directory) {
+		this.directory = directory;
+		classNames = new ArrayList<String>();
+		getClassFile(directory, "");
+	}
+
+	@Override
+	public List<String> getClassNames() {
+		return Collections.unmodifiableList(classNames);
+	}
+
+	@Override
+	public ByteBuffer getClassFile(final String className) throws IOException {
+		return read(className);
+	}
+
+	@Override
+	public long getClassFileHash(final String className) throws IOException {
+		ByteBuffer buffer = read(className);
+		if (null == buffer) {
+			return -1;
+		}
+		return getHash(buffer);
+	}
+
+	@Override
+	public ClassFileEntry getClassFileEntry(final String className) throws IOException {
+		ByteBuffer buffer = read(className);
+		if (null == buffer) {
+			return null;
+		}
+		return new ClassFileEntry(this, className, getHash(buffer), buffer);
+	}
+
+	@Override
+	public void close() throws IOException {
+	}
+
+	private static long getHash(final ByteBuffer buffer) {
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+		return (crc.getValue() << 32) | (buffer.remaining() & 0xFFFFFFFFL);
+	}
+
+	private ByteBuffer read(final String className) throws IOException {
+		File file = new File(directory, className.replace('.', File.separatorChar) + ".class");
+		if (!file.isFile()) {
+			return null;
+		}
+		return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+	}
+
+	private void getClassFile(final File file, final String packageName) {
+		File[] fs = file.listFiles();
+		if (null == fs) {
+			return;
+		}
+		for (File f : fs) {
+			String name = f.getName();
+			if (f.isDirectory()) {
+				getClassFile(f, packageName + name + ".");
+			} else if (name.toLowerCase().endsWith(".class")) {
+				classNames.add(packageName + name.substring(0, name.length() - 6));
+			}
+		}
+	}
+}
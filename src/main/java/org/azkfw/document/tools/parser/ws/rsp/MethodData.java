@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * このクラスは、JAX-RSリソースメソッドの情報を保持するクラスです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/25
+ * @author kawakicchi
+ */
+public class MethodData extends ClassData {
+
+	private String methodName;
+	private Set<String> methodTypes;
+	private List<ParameterData> parameters;
+	private String requestType;
+	private String responseType;
+
+	public MethodData() {
+		methodName = "";
+		methodTypes = new LinkedHashSet<String>();
+		parameters = new ArrayList<ParameterData>();
+		requestType = "";
+		responseType = "";
+	}
+
+	public MethodData(final ClassData data) {
+		super(data);
+		methodName = "";
+		methodTypes = new LinkedHashSet<String>();
+		parameters = new ArrayList<ParameterData>();
+		requestType = "";
+		responseType = "";
+	}
+
+	public void setMethodName(final String methodName) {
+		this.methodName = methodName;
+	}
+
+	public String getMethodName() {
+		return methodName;
+	}
+
+	public void addMethodType(final String type) {
+		methodTypes.add(type);
+	}
+
+	public Set<String> getMethodTypes() {
+		return Collections.unmodifiableSet(methodTypes);
+	}
+
+	public void addParameter(final ParameterData parameter) {
+		parameters.add(parameter);
+	}
+
+	public List<ParameterData> getParameters() {
+		return Collections.unmodifiableList(parameters);
+	}
+
+	/**
+	 * リクエストボディの型を設定する。
+	 *
+	 * @param type Javaの型名。リクエストボディがない場合は空文字
+	 */
+	public void setRequestType(final String type) {
+		this.requestType = type;
+	}
+
+	public String getRequestType() {
+		return requestType;
+	}
+
+	/**
+	 * レスポンスの型を設定する。
+	 *
+	 * @param type Javaの型名。戻り値が{@code void}の場合は空文字
+	 */
+	public void setResponseType(final String type) {
+		this.responseType = type;
+	}
+
+	public String getResponseType() {
+		return responseType;
+	}
+}
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+/**
+ * このクラスは、JAX-RSリソースメソッドのパラメーターの情報を保持するクラスです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/25
+ * @author kawakicchi
+ */
+public class ParameterData {
+
+	/** パスパラメーター（{@code @PathParam}） */
+	public static final String PATH = "path";
+	/** クエリパラメーター（{@code @QueryParam}） */
+	public static final String QUERY = "query";
+	/** ヘッダーパラメーター（{@code @HeaderParam}） */
+	public static final String HEADER = "header";
+
+	private final String name;
+	private final String in;
+	private final String type;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param name パラメーター名（アノテーションの値）
+	 * @param in 種別（{@link #PATH}、{@link #QUERY}、{@link #HEADER}）
+	 * @param type Javaの型名（例: {@code java.lang.String}、{@code int[]}）
+	 */
+	public ParameterData(final String name, final String in, final String type) {
+		this.name = name;
+		this.in = in;
+		this.type = type;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getIn() {
+		return in;
+	}
+
+	public String getType() {
+		return type;
+	}
+}
@@ -25,10 +25,37 @@ import org.azkfw.document.tools.parser.DocumentParser;
  * このインターフェースは、JarからJAX-RS解析を定義する為のインターフェースです。
  * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/30
+ * @version 1.0.0 2015/02/24
  * @author kawakicchi
  */
 public interface RESTfulParser extends DocumentParser<File, RESTfulParserEvent, RESTfulParserListener> {
 
 	public void setTargetPackage(final String targetPackage);
+
+	public void setParallelism(final int parallelism);
+
+	/**
+	 * 解析対象とするwarファイル内のライブラリを設定する。
+	 *
+	 * @param patterns {@code WEB-INF/lib}配下のjarファイル名に対するglobパターン（例: {@code myapp-*.jar}）
+	 */
+	public void setLibraries(final String... patterns);
+
+	/**
+	 * 直前の解析で解析したクラス数を取得する。
+	 *
+	 * @return クラス数
+	 */
+	public long getAnalyzedClassCount();
+
+	/**
+	 * 直前の解析でクラスの解析に要した時間の合計を取得する。
+	 *
+	 * <p>
+	 * 並列解析時は各スレッドの時間の合計です。
+	 * </p>
+	 *
+	 * @return 時間（ナノ秒）
+	 */
+	public long getAnalyzeTime();
 }
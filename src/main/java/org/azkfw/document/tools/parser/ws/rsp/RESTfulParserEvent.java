@@ -20,19 +20,40 @@ package org.azkfw.document.tools.parser.ws.rsp;
 /**
  * このクラスは、JarからJAX-RS解析のイベント情報を保持するクラスです。
  * 
+ * <p>
+ * 検出したリソースメソッド毎に生成し、生成後は変更しません。
+ * </p>
+ * 
  * @since 1.0.0
- * @version 1.0.0 2015/01/30
+ * @version 1.0.0 2015/02/24
  * @author kawakicchi
  */
 public class RESTfulParserEvent {
 
-	private RESTfulParser parser;
+	private final RESTfulParser parser;
+	private final MethodData methodData;
 
-	public RESTfulParserEvent(final RESTfulParser parser) {
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param parser パーサー
+	 * @param methodData 検出したリソースメソッドの情報
+	 */
+	public RESTfulParserEvent(final RESTfulParser parser, final MethodData methodData) {
 		this.parser = parser;
+		this.methodData = methodData;
 	}
 
 	public RESTfulParser getParser() {
 		return parser;
 	}
+
+	/**
+	 * リソースメソッドの情報を取得する。
+	 * 
+	 * @return メソッド情報（パス、HTTPメソッド、Consumes、Produces、クラス名、メソッド名）
+	 */
+	public MethodData getMethodData() {
+		return methodData;
+	}
 }
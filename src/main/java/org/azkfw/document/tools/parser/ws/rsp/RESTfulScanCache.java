@@ -0,0 +1,381 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * このクラスは、クラス毎のJAX-RS解析結果をクラスファイルのハッシュ値をキーに保持するキャッシュクラスです。
+ *
+ * <p>
+ * 解析結果は独自のバイナリ形式でファイルに保存し、次回の解析でクラスファイルのハッシュ値が一致するクラスは再解析しません。
+ * リソースクラスの結果は、継承元として参照したクラスのハッシュ値も保持し、いずれかが変更された場合は無効とします。
+ * 取得元に存在しなかった継承元はハッシュ値{@code -1}として保持する為、後から追加された場合も無効とします。
+ * 解析処理が理解するアノテーションの構成（シグネチャ）が保存時と異なる場合、キャッシュ全体を破棄します。
+ * </p>
+ * <p>
+ * warファイル内のライブラリは、jarファイルのCRC-32とサイズをキーにライブラリ単位で結果を保持します。
+ * </p>
+ * <p>
+ * 読み込んだ結果と今回の解析で参照または登録した結果は分けて保持し、保存するのは後者のみです。
+ * その為、削除されたクラスやライブラリの結果はキャッシュに残りません。
+ * </p>
+ * <p>
+ * このクラスはスレッドセーフです。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public final class RESTfulScanCache {
+
+	private static final int MAGIC = 0x415A5243;
+	private static final int VERSION = 3;
+
+	private String signature;
+
+	/** 読み込んだエントリ */
+	private final Map<String, Entry> previousEntries;
+	/** 今回の解析で参照または登録したエントリ */
+	private final Map<String, Entry> entries;
+
+	/** 読み込んだライブラリの解析結果 */
+	private final Map<String, List<MethodData>> previousLibraries;
+	/** 今回の解析で参照または登録したライブラリの解析結果 */
+	private final Map<String, List<MethodData>> libraries;
+
+	private final AtomicLong hitCount;
+	private final AtomicLong missCount;
+
+	public RESTfulScanCache() {
+		signature = "";
+		previousEntries = new ConcurrentHashMap<String, Entry>();
+		entries = new ConcurrentHashMap<String, Entry>();
+		previousLibraries = new ConcurrentHashMap<String, List<MethodData>>();
+		libraries = new ConcurrentHashMap<String, List<MethodData>>();
+		hitCount = new AtomicLong();
+		missCount = new AtomicLong();
+	}
+
+	/**
+	 * ファイルからキャッシュを読み込む。
+	 *
+	 * <p>
+	 * ファイルが存在しない、または形式が異なる場合は空のキャッシュを返します。
+	 * </p>
+	 *
+	 * @param file ファイル
+	 * @return キャッシュ
+	 */
+	public static RESTfulScanCache load(final File file) {
+		RESTfulScanCache cache = new RESTfulScanCache();
+		if (file.isFile()) {
+			try {
+				DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+				try {
+					cache.read(in);
+				} finally {
+					in.close();
+				}
+			} catch (IOException ex) {
+				System.err.println("Discard scan cache " + file.getAbsolutePath() + " : " + ex.getMessage());
+				cache.previousEntries.clear();
+				cache.previousLibraries.clear();
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * キャッシュをファイルへ保存する。
+	 *
+	 * <p>
+	 * 今回の解析で参照または登録した結果のみを保存します。
+	 * </p>
+	 *
+	 * @param file ファイル
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public void save(final File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			write(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * 解析処理のシグネチャを検証する。
+	 *
+	 * <p>
+	 * 保持しているシグネチャと異なる場合、全てのエントリを破棄します。
+	 * </p>
+	 *
+	 * @param signature シグネチャ
+	 */
+	public synchronized void validate(final String signature) {
+		if (!this.signature.equals(signature)) {
+			previousEntries.clear();
+			entries.clear();
+			previousLibraries.clear();
+			libraries.clear();
+			this.signature = signature;
+		}
+	}
+
+	/**
+	 * 解析結果を取得する。
+	 *
+	 * @param className クラス名
+	 * @param hash クラスファイルのハッシュ値
+	 * @param source 継承元クラスのハッシュ値を取得する取得元
+	 * @return 解析結果。キャッシュされていない、または無効な場合は<code>null</code>
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public List<MethodData> get(final String className, final long hash, final ClassFileSource source) throws IOException {
+		Entry entry = entries.get(className);
+		if (null == entry) {
+			entry = previousEntries.get(className);
+		}
+		if (null != entry && hash == entry.hash) {
+			boolean valid = true;
+			for (Map.Entry<String, Long> dependency : entry.dependencies.entrySet()) {
+				if (dependency.getValue().longValue() != source.getClassFileHash(dependency.getKey())) {
+					valid = false;
+					break;
+				}
+			}
+			if (valid) {
+				entries.put(className, entry);
+				hitCount.incrementAndGet();
+				return entry.methods;
+			}
+		}
+		missCount.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * 解析結果を登録する。
+	 *
+	 * @param className クラス名
+	 * @param hash クラスファイルのハッシュ値
+	 * @param dependencies 継承元として参照したクラス名とハッシュ値。取得元に存在しないクラスは{@code -1}
+	 * @param methods 解析結果
+	 */
+	public void put(final String className, final long hash, final Map<String, Long> dependencies, final List<MethodData> methods) {
+		Entry entry = new Entry();
+		entry.hash = hash;
+		entry.dependencies = (null == dependencies) ? Collections.<String, Long> emptyMap() : dependencies;
+		entry.methods = (null == methods) ? Collections.<MethodData> emptyList() : methods;
+		entries.put(className, entry);
+	}
+
+	/**
+	 * ライブラリの解析結果を取得する。
+	 *
+	 * @param key ライブラリのキー（jarファイルのCRC-32とサイズ、解析条件から生成した文字列）
+	 * @return 解析結果。キャッシュされていない場合は<code>null</code>
+	 */
+	public List<MethodData> getLibrary(final String key) {
+		List<MethodData> methods = libraries.get(key);
+		if (null == methods) {
+			methods = previousLibraries.get(key);
+		}
+		if (null == methods) {
+			missCount.incrementAndGet();
+		} else {
+			libraries.put(key, methods);
+			hitCount.incrementAndGet();
+		}
+		return methods;
+	}
+
+	/**
+	 * ライブラリの解析結果を登録する。
+	 *
+	 * @param key ライブラリのキー
+	 * @param methods 解析結果
+	 */
+	public void putLibrary(final String key, final List<MethodData> methods) {
+		libraries.put(key, methods);
+	}
+
+	/**
+	 * 保存対象のエントリ数を取得する。
+	 *
+	 * @return 今回の解析で参照または登録したクラスのエントリ数
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	private void read(final DataInputStream in) throws IOException {
+		if (MAGIC != in.readInt() || VERSION != in.readInt()) {
+			throw new IOException("Unsupported format.");
+		}
+		signature = in.readUTF();
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String className = in.readUTF();
+			Entry entry = new Entry();
+			entry.hash = in.readLong();
+			int dependencyCount = in.readUnsignedShort();
+			entry.dependencies = new LinkedHashMap<String, Long>();
+			for (int j = 0; j < dependencyCount; j++) {
+				String name = in.readUTF();
+				entry.dependencies.put(name, Long.valueOf(in.readLong()));
+			}
+			int methodCount = in.readUnsignedShort();
+			entry.methods = new ArrayList<MethodData>(methodCount);
+			for (int j = 0; j < methodCount; j++) {
+				entry.methods.add(readMethodData(in, className));
+			}
+			previousEntries.put(className, entry);
+		}
+		int libraryCount = in.readInt();
+		for (int i = 0; i < libraryCount; i++) {
+			String key = in.readUTF();
+			int methodCount = in.readInt();
+			List<MethodData> methods = new ArrayList<MethodData>(methodCount);
+			for (int j = 0; j < methodCount; j++) {
+				methods.add(readMethodData(in, in.readUTF()));
+			}
+			previousLibraries.put(key, methods);
+		}
+	}
+
+	private void write(final DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(signature);
+		List<Map.Entry<String, Entry>> list = new ArrayList<Map.Entry<String, Entry>>(entries.entrySet());
+		out.writeInt(list.size());
+		for (Map.Entry<String, Entry> e : list) {
+			Entry entry = e.getValue();
+			out.writeUTF(e.getKey());
+			out.writeLong(entry.hash);
+			out.writeShort(entry.dependencies.size());
+			for (Map.Entry<String, Long> dependency : entry.dependencies.entrySet()) {
+				out.writeUTF(dependency.getKey());
+				out.writeLong(dependency.getValue().longValue());
+			}
+			out.writeShort(entry.methods.size());
+			for (MethodData methodData : entry.methods) {
+				writeMethodData(out, methodData);
+			}
+		}
+		List<Map.Entry<String, List<MethodData>>> libraryList = new ArrayList<Map.Entry<String, List<MethodData>>>(
+				libraries.entrySet());
+		out.writeInt(libraryList.size());
+		for (Map.Entry<String, List<MethodData>> e : libraryList) {
+			out.writeUTF(e.getKey());
+			out.writeInt(e.getValue().size());
+			for (MethodData methodData : e.getValue()) {
+				out.writeUTF(methodData.getClassName());
+				writeMethodData(out, methodData);
+			}
+		}
+	}
+
+	private static MethodData readMethodData(final DataInputStream in, final String className) throws IOException {
+		MethodData methodData = new MethodData();
+		methodData.setClassName(className);
+		methodData.setPath(in.readUTF());
+		methodData.setMethodName(in.readUTF());
+		for (String s : readStrings(in)) {
+			methodData.addMethodType(s);
+		}
+		for (String s : readStrings(in)) {
+			methodData.addConsume(s);
+		}
+		for (String s : readStrings(in)) {
+			methodData.addProduce(s);
+		}
+		int parameterCount = in.readUnsignedShort();
+		for (int i = 0; i < parameterCount; i++) {
+			methodData.addParameter(new ParameterData(in.readUTF(), in.readUTF(), in.readUTF()));
+		}
+		methodData.setRequestType(in.readUTF());
+		methodData.setResponseType(in.readUTF());
+		return methodData;
+	}
+
+	private static void writeMethodData(final DataOutputStream out, final MethodData methodData) throws IOException {
+		out.writeUTF(methodData.getPath());
+		out.writeUTF(methodData.getMethodName());
+		writeStrings(out, methodData.getMethodTypes());
+		writeStrings(out, methodData.getConsumes());
+		writeStrings(out, methodData.getProduces());
+		out.writeShort(methodData.getParameters().size());
+		for (ParameterData parameter : methodData.getParameters()) {
+			out.writeUTF(parameter.getName());
+			out.writeUTF(parameter.getIn());
+			out.writeUTF(parameter.getType());
+		}
+		out.writeUTF(methodData.getRequestType());
+		out.writeUTF(methodData.getResponseType());
+	}
+
+	private static List<String> readStrings(final DataInputStream in) throws IOException {
+		int count = in.readUnsignedShort();
+		List<String> strings = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			strings.add(in.readUTF());
+		}
+		return strings;
+	}
+
+	private static void writeStrings(final DataOutputStream out, final Collection<String> strings) throws IOException {
+		out.writeShort(strings.size());
+		for (String s : strings) {
+			out.writeUTF(s);
+		}
+	}
+
+	private static class Entry {
+		private long hash;
+		private Map<String, Long> dependencies;
+		private List<MethodData> methods;
+	}
+}
@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.azkfw.document.tools.archive.ArchiveReader;
+
+/**
+ * このクラスは、warファイルを展開せずにクラスをロードするクラスローダーです。
+ *
+ * <p>
+ * {@code WEB-INF/classes}配下のエントリはwarファイルから直接読み込み、{@code WEB-INF/lib}配下のjarファイルは
+ * 必要になった時点でwarファイル内のエントリを{@link ArchiveReader}として開きます。一時ディレクトリへの展開は行いません。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/07
+ * @author kawakicchi
+ */
+public class WarClassLoader extends ClassLoader implements Closeable {
+
+	private static final String CLASSES_PATH = ClassFileSources.WAR_CLASSES_PATH;
+
+	static {
+		registerAsParallelCapable();
+	}
+
+	private final File file;
+	private final ArchiveReader reader;
+	private final List<Integer> libraries;
+	private final ArchiveReader[] libraryReaders;
+
+	private final URLStreamHandler handler;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param file warファイル
+	 * @param parent 親クラスローダー
+	 * @throws IOException IO操作に起因する問題が発生した場合
+	 */
+	public WarClassLoader(final File file, final ClassLoader parent) throws IOException {
+		super(parent);
+		this.file = file;
+		reader = ArchiveReader.open(file);
+
+		libraries = new ArrayList<Integer>();
+		for (String name : ClassFileSources.getLibraryNames(reader)) {
+			libraries.add(reader.indexOf(name));
+		}
+		libraryReaders = new ArchiveReader[libraries.size()];
+
+		handler = new URLStreamHandler() {
+			@Override
+			protected URLConnection openConnection(final URL url) throws IOException {
+				final ByteBuffer buffer = getEntry(url.getPath().substring(1));
+				if (null == buffer) {
+					throw new IOException("Not found resource: " + url);
+				}
+				return new URLConnection(url) {
+					@Override
+					public void connect() {
+					}
+
+					@Override
+					public InputStream getInputStream() {
+						return ArchiveReader.toInputStream(buffer);
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	protected Class<?> findClass(final String name) throws ClassNotFoundException {
+		ByteBuffer buffer = null;
+		try {
+			buffer = getEntry(name.replace('.', '/') + ".class");
+		} catch (IOException ex) {
+			throw new ClassNotFoundException(name, ex);
+		}
+		if (null == buffer) {
+			throw new ClassNotFoundException(name);
+		}
+
+		int index = name.lastIndexOf('.');
+		if (-1 != index) {
+			String packageName = name.substring(0, index);
+			if (null == getPackage(packageName)) {
+				definePackage(packageName, null, null, null, null, null, null, null);
+			}
+		}
+		return defineClass(name, buffer, null);
+	}
+
+	@Override
+	protected URL findResource(final String name) {
+		try {
+			if (containsEntry(name)) {
+				return new URL("war", null, -1, "/" + name, handler);
+			}
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+		return null;
+	}
+
+	@Override
+	protected Enumeration<URL> findResources(final String name) throws IOException {
+		List<URL> urls = new ArrayList<URL>();
+		URL url = findResource(name);
+		if (null != url) {
+			urls.add(url);
+		}
+		return Collections.enumeration(urls);
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (libraryReaders) {
+			for (int i = 0; i < libraryReaders.length; i++) {
+				if (null != libraryReaders[i]) {
+					libraryReaders[i].close();
+					libraryReaders[i] = null;
+				}
+			}
+		}
+		reader.close();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%s]", getClass().getSimpleName(), file.getAbsolutePath());
+	}
+
+	private boolean containsEntry(final String name) throws IOException {
+		if (-1 != reader.indexOf(CLASSES_PATH + name)) {
+			return true;
+		}
+		for (int i = 0; i < libraryReaders.length; i++) {
+			if (-1 != getLibraryReader(i).indexOf(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private ByteBuffer getEntry(final String name) throws IOException {
+		int index = reader.indexOf(CLASSES_PATH + name);
+		if (-1 != index) {
+			return reader.read(index);
+		}
+
+		for (int i = 0; i < libraryReaders.length; i++) {
+			ArchiveReader library = getLibraryReader(i);
+			index = library.indexOf(name);
+			if (-1 != index) {
+				return library.read(index);
+			}
+		}
+		return null;
+	}
+
+	private ArchiveReader getLibraryReader(final int index) throws IOException {
+		synchronized (libraryReaders) {
+			ArchiveReader library = libraryReaders[index];
+			if (null == library) {
+				// 無圧縮で格納されている場合はwarファイルのバッファを共有する
+				library = new ArchiveReader(reader.read(libraries.get(index)));
+				libraryReaders[index] = library;
+			}
+			return library;
+		}
+	}
+}
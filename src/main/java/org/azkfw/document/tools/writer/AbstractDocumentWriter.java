@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * このクラスは、ドキュメントライターの基底クラスです。
+ * 
+ * <p>
+ * 出力先のファイルへはバッファを介したチャネルで書き込む為、出力量に関わらず使用するメモリは一定です。
+ * ヘッダーは最初のイベントの出力前に、フッターは{@link #close()}で出力します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public abstract class AbstractDocumentWriter<EVENT> implements DocumentWriter<EVENT> {
+
+	/** バッファのサイズ */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final FileChannel channel;
+	private final Writer writer;
+	private boolean started;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param file 出力先ファイル
+	 * @param charset 文字コード
+	 * @throws IOException 出力先を開けなかった場合
+	 */
+	public AbstractDocumentWriter(final File file, final Charset charset) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		writer = new BufferedWriter(Channels.newWriter(channel, charset.newEncoder(), BUFFER_SIZE), BUFFER_SIZE);
+		started = false;
+	}
+
+	@Override
+	public final void documentParserCallback(final EVENT event) {
+		try {
+			write(event);
+		} catch (IOException ex) {
+			throw new IllegalStateException("Write failed.", ex);
+		}
+	}
+
+	@Override
+	public final void write(final EVENT event) throws IOException {
+		if (!started) {
+			started = true;
+			writeHeader(writer);
+		}
+		writeEvent(writer, event);
+	}
+
+	@Override
+	public final void close() throws IOException {
+		try {
+			if (!started) {
+				started = true;
+				writeHeader(writer);
+			}
+			writeFooter(writer);
+			writer.flush();
+		} finally {
+			writer.close();
+			channel.close();
+		}
+	}
+
+	/**
+	 * ヘッダーとフッターを出力せずに出力先を閉じる。
+	 * 
+	 * <p>
+	 * サブクラスのコンストラクタで、出力先を開いた後の初期化に失敗した場合に使用します。
+	 * </p>
+	 * 
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	protected final void discard() throws IOException {
+		try {
+			writer.close();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * ヘッダーを出力する。
+	 * 
+	 * @param writer ライター
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	protected void writeHeader(final Writer writer) throws IOException {
+	}
+
+	/**
+	 * イベントを出力する。
+	 * 
+	 * @param writer ライター
+	 * @param event イベント
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	protected abstract void writeEvent(final Writer writer, final EVENT event) throws IOException;
+
+	/**
+	 * フッターを出力する。
+	 * 
+	 * @param writer ライター
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	protected void writeFooter(final Writer writer) throws IOException {
+	}
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.azkfw.document.tools.parser.DocumentParserListener;
+
+/**
+ * このインターフェースは、ドキュメント解析のイベントを逐次出力するライターを定義する為のインターフェースです。
+ * 
+ * <p>
+ * 解析のリスナーとして登録し、解析の終了後に{@link #close()}で出力を完了します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/23
+ * @author kawakicchi
+ */
+public interface DocumentWriter<EVENT> extends DocumentParserListener<EVENT>, Closeable {
+
+	/**
+	 * イベントを出力する。
+	 * 
+	 * @param event イベント
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	public void write(final EVENT event) throws IOException;
+
+	/**
+	 * 出力を完了し、出力先を閉じる。
+	 * 
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	@Override
+	public void close() throws IOException;
+
+}
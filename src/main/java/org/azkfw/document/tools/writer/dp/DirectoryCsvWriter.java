@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.dp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.azkfw.document.tools.parser.dp.DirectoryParserFileInfo;
+
+/**
+ * このクラスは、ディレクトリ構成をCSV(RFC 4180)で出力するクラスです。
+ * 
+ * <p>
+ * 1要素を1行とし、パス、名前、種別({@code directory}/{@code file}/{@code summary})、深さ、サイズ、最終更新日時を出力します。
+ * ディレクトリのサイズは出力しません。要約の行のパスは親ディレクトリのパスです。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/23
+ * @author kawakicchi
+ */
+public class DirectoryCsvWriter extends DirectoryWriter {
+
+	private static final String LINE_SEPARATOR = "\r\n";
+
+	private final SimpleDateFormat format;
+
+	public DirectoryCsvWriter(final File file) throws IOException {
+		super(file);
+		format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+	}
+
+	@Override
+	protected void writeHeader(final Writer writer) throws IOException {
+		writer.write("path,name,type,depth,size,lastModified");
+		writer.write(LINE_SEPARATOR);
+	}
+
+	@Override
+	protected void writeEntry(final Writer writer, final DirectoryParserFileInfo info) throws IOException {
+		writeValue(writer, info.getFile().getPath());
+		writer.write(',');
+		writeValue(writer, info.getName());
+		writer.write(',');
+		if (info.isSummary()) {
+			writer.write("summary");
+		} else if (info.isDirectory()) {
+			writer.write("directory");
+		} else {
+			writer.write("file");
+		}
+		writer.write(',');
+		writer.write(Integer.toString(info.getDepth()));
+		writer.write(',');
+		if (!info.isDirectory()) {
+			writer.write(Long.toString(info.getSize()));
+		}
+		writer.write(',');
+		if (!info.isSummary()) {
+			writer.write(format.format(new Date(info.getLastModified())));
+		}
+		writer.write(LINE_SEPARATOR);
+	}
+
+	private static void writeValue(final Writer writer, final String value) throws IOException {
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = (',' == c || '"' == c || '\r' == c || '\n' == c);
+		}
+		if (quote) {
+			writer.write('"');
+			writer.write(value.replace("\"", "\"\""));
+			writer.write('"');
+		} else {
+			writer.write(value);
+		}
+	}
+
+}
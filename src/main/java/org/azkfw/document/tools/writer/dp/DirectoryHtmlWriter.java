@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.dp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.azkfw.document.tools.parser.dp.DirectoryParserFileInfo;
+
+/**
+ * このクラスは、ディレクトリ構成をHTMLで出力するクラスです。
+ * 
+ * <p>
+ * ディレクトリを{@code <details>}要素で出力し、ブラウザ上で展開した時に配下を表示します。
+ * 要素は行きがけ順で通知される為、出力中のディレクトリの深さのみを保持し、次の要素より深いディレクトリの要素を閉じながら出力します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/23
+ * @author kawakicchi
+ */
+public class DirectoryHtmlWriter extends DirectoryWriter {
+
+	/** 開いている{@code <details>}要素の数 */
+	private int open;
+
+	public DirectoryHtmlWriter(final File file) throws IOException {
+		super(file);
+		open = 0;
+	}
+
+	@Override
+	protected void writeHeader(final Writer writer) throws IOException {
+		writer.write("<!DOCTYPE html>\n");
+		writer.write("<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>ディレクトリ構成</title>\n");
+		writer.write("<style>\n");
+		writer.write("details details, details div { margin-left: 1.5em; }\n");
+		writer.write("summary { font-weight: bold; cursor: pointer; }\n");
+		writer.write(".summary { font-style: italic; }\n");
+		writer.write("</style>\n</head>\n<body>\n");
+	}
+
+	@Override
+	protected void writeEntry(final Writer writer, final DirectoryParserFileInfo info) throws IOException {
+		close(writer, info.getDepth());
+		if (info.isDirectory()) {
+			writer.write((0 == info.getDepth()) ? "<details open><summary>" : "<details><summary>");
+			writeValue(writer, info.getName());
+			writer.write("</summary>\n");
+			open++;
+		} else {
+			writer.write(info.isSummary() ? "<div class=\"summary\">" : "<div>");
+			writeValue(writer, info.getName());
+			writer.write("</div>\n");
+		}
+	}
+
+	@Override
+	protected void writeFooter(final Writer writer) throws IOException {
+		close(writer, 0);
+		writer.write("</body>\n</html>\n");
+	}
+
+	private void close(final Writer writer, final int depth) throws IOException {
+		for (; open > depth; open--) {
+			writer.write("</details>\n");
+		}
+	}
+
+	private static void writeValue(final Writer writer, final String value) throws IOException {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '&':
+				writer.write("&amp;");
+				break;
+			case '<':
+				writer.write("&lt;");
+				break;
+			case '>':
+				writer.write("&gt;");
+				break;
+			case '"':
+				writer.write("&quot;");
+				break;
+			default:
+				writer.write(c);
+				break;
+			}
+		}
+	}
+
+}
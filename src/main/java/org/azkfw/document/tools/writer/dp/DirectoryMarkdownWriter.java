@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.dp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.azkfw.document.tools.parser.dp.DirectoryParserFileInfo;
+
+/**
+ * このクラスは、ディレクトリ構成をMarkdownの入れ子のリストで出力するクラスです。
+ * 
+ * <p>
+ * ディレクトリは名前の末尾に{@code /}を付けて太字で、要約した要素は斜体で出力します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/23
+ * @author kawakicchi
+ */
+public class DirectoryMarkdownWriter extends DirectoryWriter {
+
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	/** エスケープが必要な文字 */
+	private static final String SPECIAL_CHARS = "\\`*_[]<>|";
+
+	public DirectoryMarkdownWriter(final File file) throws IOException {
+		super(file);
+	}
+
+	@Override
+	protected void writeEntry(final Writer writer, final DirectoryParserFileInfo info) throws IOException {
+		for (int i = 0; i < info.getDepth(); i++) {
+			writer.write("  ");
+		}
+		writer.write("- ");
+		if (info.isSummary()) {
+			writer.write('_');
+			writeValue(writer, info.getName());
+			writer.write('_');
+		} else if (info.isDirectory()) {
+			writer.write("**");
+			writeValue(writer, info.getName());
+			writer.write("/**");
+		} else {
+			writeValue(writer, info.getName());
+		}
+		writer.write(LINE_SEPARATOR);
+	}
+
+	private static void writeValue(final Writer writer, final String value) throws IOException {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (0 <= SPECIAL_CHARS.indexOf(c)) {
+				writer.write('\\');
+			}
+			writer.write(c);
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.dp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.azkfw.document.tools.parser.dp.DirectoryParserFileInfo;
+
+/**
+ * このクラスは、ディレクトリ構成を{@code tree}コマンドと同様のテキストで出力するクラスです。
+ * 
+ * <p>
+ * 末尾にディレクトリ数とファイル数（ルートを除く）を出力します。要約した要素はファイル数に含みます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public class DirectoryTextWriter extends DirectoryWriter {
+
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	private long countDirectory;
+	private long countFile;
+
+	public DirectoryTextWriter(final File file) throws IOException {
+		super(file);
+		countDirectory = 0;
+		countFile = 0;
+	}
+
+	@Override
+	protected void writeEntry(final Writer writer, final DirectoryParserFileInfo info) throws IOException {
+		if (0 == info.getDepth()) {
+			writer.write(info.getFile().getPath());
+		} else {
+			writer.write(info.getPrefix());
+			writer.write(info.getName());
+			if (info.isSummary()) {
+				countDirectory += info.getSummaryDirectoryCount();
+				countFile += info.getSummaryFileCount();
+			} else if (info.isDirectory()) {
+				countDirectory++;
+			} else {
+				countFile++;
+			}
+		}
+		writer.write(LINE_SEPARATOR);
+	}
+
+	@Override
+	protected void writeFooter(final Writer writer) throws IOException {
+		writer.write(LINE_SEPARATOR);
+		writer.write(String.format("%d directories, %d files", countDirectory, countFile));
+		writer.write(LINE_SEPARATOR);
+	}
+
+}
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.dp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.azkfw.document.tools.parser.dp.DirectoryParserEvent;
+import org.azkfw.document.tools.parser.dp.DirectoryParserFileInfo;
+import org.azkfw.document.tools.parser.dp.DirectoryParserListener;
+import org.azkfw.document.tools.writer.AbstractDocumentWriter;
+
+/**
+ * このクラスは、ディレクトリ構成を出力するライターの基底クラスです。
+ * 
+ * <p>
+ * 要素は通知された順（行きがけ順）に出力します。集計のイベントは出力しません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/23
+ * @author kawakicchi
+ */
+public abstract class DirectoryWriter extends AbstractDocumentWriter<DirectoryParserEvent> implements DirectoryParserListener {
+
+	/**
+	 * 出力先ファイルの拡張子に対応するライターを生成する。
+	 * 
+	 * <p>
+	 * 対応する拡張子は次の通りです。
+	 * <ul>
+	 * <li>{@code .txt} : {@link DirectoryTextWriter}</li>
+	 * <li>{@code .csv} : {@link DirectoryCsvWriter}</li>
+	 * <li>{@code .md} : {@link DirectoryMarkdownWriter}</li>
+	 * <li>{@code .html}, {@code .htm} : {@link DirectoryHtmlWriter}</li>
+	 * </ul>
+	 * </p>
+	 * 
+	 * @param file 出力先ファイル
+	 * @return ライター。対応しない拡張子の場合は<code>null</code>
+	 * @throws IOException 出力先を開けなかった場合
+	 */
+	public static DirectoryWriter newInstance(final File file) throws IOException {
+		String name = file.getName().toLowerCase(Locale.ENGLISH);
+		if (name.endsWith(".txt")) {
+			return new DirectoryTextWriter(file);
+		} else if (name.endsWith(".csv")) {
+			return new DirectoryCsvWriter(file);
+		} else if (name.endsWith(".md")) {
+			return new DirectoryMarkdownWriter(file);
+		} else if (name.endsWith(".html") || name.endsWith(".htm")) {
+			return new DirectoryHtmlWriter(file);
+		}
+		return null;
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param file 出力先ファイル（UTF-8）
+	 * @throws IOException 出力先を開けなかった場合
+	 */
+	public DirectoryWriter(final File file) throws IOException {
+		super(file, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	protected final void writeEvent(final Writer writer, final DirectoryParserEvent event) throws IOException {
+		if (null == event.getAggregate()) {
+			writeEntry(writer, event.getInfo());
+		}
+	}
+
+	/**
+	 * 要素を出力する。
+	 * 
+	 * @param writer ライター
+	 * @param info 要素
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	protected abstract void writeEntry(final Writer writer, final DirectoryParserFileInfo info) throws IOException;
+
+}
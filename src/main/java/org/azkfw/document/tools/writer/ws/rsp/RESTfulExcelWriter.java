@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.ws.rsp;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.azkfw.document.tools.parser.ws.rsp.MethodData;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParser;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParserEvent;
+
+/**
+ * このクラスは、JAX-RS構成をエクセル出力するクラスです。
+ * 
+ * <p>
+ * {@link SXSSFWorkbook}により一定行数を超えた行を一時ファイルへ書き出す為、エンドポイント数に関わらず保持する行数が一定になります。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/24
+ * @author kawakicchi
+ */
+public class RESTfulExcelWriter implements RESTfulWriter {
+
+	/** メモリ上に保持する行数 */
+	private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
+	private static final String[] HEADERS = { "パス", "HTTPメソッド", "Consumes", "Produces", "クラス", "メソッド" };
+
+	private final File file;
+	private final RESTfulParser parser;
+	private final SXSSFWorkbook workbook;
+	private final Sheet sheet;
+	private final CellStyle styleHeader;
+	private int countEndpoint;
+
+	public RESTfulExcelWriter(final File file, final RESTfulParser parser) {
+		this.file = file;
+		this.parser = parser;
+		workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+		workbook.setCompressTempFiles(true);
+		sheet = workbook.createSheet("エンドポイント");
+
+		Font font = workbook.createFont();
+		font.setBoldweight(Font.BOLDWEIGHT_BOLD);
+		styleHeader = workbook.createCellStyle();
+		styleHeader.setFont(font);
+
+		Row row = sheet.createRow(0);
+		for (int col = 0; col < HEADERS.length; col++) {
+			row.createCell(col).setCellValue(HEADERS[col]);
+			row.getCell(col).setCellStyle(styleHeader);
+		}
+		countEndpoint = 0;
+	}
+
+	@Override
+	public void documentParserCallback(final RESTfulParserEvent event) {
+		write(event);
+	}
+
+	@Override
+	public void write(final RESTfulParserEvent event) {
+		MethodData data = event.getMethodData();
+		countEndpoint++;
+		Row row = sheet.createRow(countEndpoint);
+		row.createCell(0).setCellValue(data.getPath());
+		row.createCell(1).setCellValue(join(data.getMethodTypes()));
+		row.createCell(2).setCellValue(join(data.getConsumes()));
+		row.createCell(3).setCellValue(join(data.getProduces()));
+		row.createCell(4).setCellValue(data.getClassName());
+		row.createCell(5).setCellValue(data.getMethodName());
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			int index = countEndpoint + 2;
+			writeMetric(index++, "エンドポイント数", countEndpoint);
+			writeMetric(index++, "解析クラス数", parser.getAnalyzedClassCount());
+			writeMetric(index++, "1クラスあたりの解析時間(ms)", RESTfulWriters.getAnalyzeTimePerClass(parser));
+
+			sheet.setColumnWidth(0, 50 * 256);
+			sheet.setColumnWidth(1, 16 * 256);
+			sheet.setColumnWidth(2, 24 * 256);
+			sheet.setColumnWidth(3, 24 * 256);
+			sheet.setColumnWidth(4, 50 * 256);
+			sheet.setColumnWidth(5, 24 * 256);
+
+			FileOutputStream out = new FileOutputStream(file);
+			try {
+				workbook.write(out);
+			} finally {
+				out.close();
+			}
+		} finally {
+			workbook.dispose();
+		}
+	}
+
+	private void writeMetric(final int index, final String name, final double value) {
+		Row row = sheet.createRow(index);
+		row.createCell(0).setCellValue(name);
+		row.getCell(0).setCellStyle(styleHeader);
+		row.createCell(1).setCellValue(value);
+	}
+
+	private static String join(final Collection<String> values) {
+		StringBuilder s = new StringBuilder();
+		for (String value : values) {
+			if (0 < s.length()) {
+				s.append(", ");
+			}
+			s.append(value);
+		}
+		return s.toString();
+	}
+
+}
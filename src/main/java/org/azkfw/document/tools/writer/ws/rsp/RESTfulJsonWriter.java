@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.ws.rsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+
+import org.azkfw.document.tools.parser.ws.rsp.MethodData;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParser;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParserEvent;
+import org.azkfw.document.tools.writer.AbstractDocumentWriter;
+
+/**
+ * このクラスは、JAX-RS構成をJSONのエンドポイント一覧で出力するクラスです。
+ * 
+ * <p>
+ * {@code endpoints}配列にリソースメソッドを検出した順に出力し、{@code metrics}オブジェクトに統計を出力します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/24
+ * @author kawakicchi
+ */
+public class RESTfulJsonWriter extends AbstractDocumentWriter<RESTfulParserEvent> implements RESTfulWriter {
+
+	private final RESTfulParser parser;
+	private long countEndpoint;
+
+	public RESTfulJsonWriter(final File file, final RESTfulParser parser) throws IOException {
+		super(file, StandardCharsets.UTF_8);
+		this.parser = parser;
+		countEndpoint = 0;
+	}
+
+	@Override
+	protected void writeHeader(final Writer writer) throws IOException {
+		writer.write("{\n  \"endpoints\" : [");
+	}
+
+	@Override
+	protected void writeEvent(final Writer writer, final RESTfulParserEvent event) throws IOException {
+		MethodData data = event.getMethodData();
+		writer.write((0 == countEndpoint) ? "\n" : ",\n");
+		writer.write("    { \"path\" : ");
+		writeString(writer, data.getPath());
+		writer.write(", \"methods\" : ");
+		writeArray(writer, data.getMethodTypes());
+		writer.write(", \"consumes\" : ");
+		writeArray(writer, data.getConsumes());
+		writer.write(", \"produces\" : ");
+		writeArray(writer, data.getProduces());
+		writer.write(", \"class\" : ");
+		writeString(writer, data.getClassName());
+		writer.write(", \"method\" : ");
+		writeString(writer, data.getMethodName());
+		writer.write(" }");
+		countEndpoint++;
+	}
+
+	@Override
+	protected void writeFooter(final Writer writer) throws IOException {
+		writer.write((0 == countEndpoint) ? "],\n" : "\n  ],\n");
+		writer.write("  \"metrics\" : {\n");
+		writer.write(String.format("    \"endpointCount\" : %d,\n", countEndpoint));
+		writer.write(String.format("    \"classCount\" : %d,\n", parser.getAnalyzedClassCount()));
+		writer.write(String.format(Locale.ENGLISH, "    \"timePerClassMillis\" : %.3f\n",
+				RESTfulWriters.getAnalyzeTimePerClass(parser)));
+		writer.write("  }\n}\n");
+	}
+
+	static void writeArray(final Writer writer, final Collection<String> values) throws IOException {
+		writer.write('[');
+		boolean first = true;
+		for (String value : values) {
+			if (!first) {
+				writer.write(", ");
+			}
+			writeString(writer, value);
+			first = false;
+		}
+		writer.write(']');
+	}
+
+	/**
+	 * 文字列をJSONの文字列として出力する。
+	 * 
+	 * @param writer ライター
+	 * @param value 文字列
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	static void writeString(final Writer writer, final String value) throws IOException {
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				writer.write("\\\"");
+				break;
+			case '\\':
+				writer.write("\\\\");
+				break;
+			case '\n':
+				writer.write("\\n");
+				break;
+			case '\r':
+				writer.write("\\r");
+				break;
+			case '\t':
+				writer.write("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					writer.write(String.format("\\u%04x", (int) c));
+				} else {
+					writer.write(c);
+				}
+				break;
+			}
+		}
+		writer.write('"');
+	}
+
+}
@@ -0,0 +1,429 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.ws.rsp;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.azkfw.document.tools.parser.ws.rsp.MethodData;
+import org.azkfw.document.tools.parser.ws.rsp.ParameterData;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParserEvent;
+import org.azkfw.document.tools.writer.AbstractDocumentWriter;
+
+/**
+ * このクラスは、JAX-RS構成をOpenAPI 3のJSONで出力するクラスです。
+ * 
+ * <p>
+ * 同じパスのリソースメソッドは別のクラスから離れて通知される場合がある為、
+ * 各オペレーションは検出時にJSONの断片として一時ファイルへ追記し、メモリ上にはパス毎の断片の位置のみを保持します。
+ * {@link #close()}でパスの順に断片を読み戻し、同じパスのオペレーションを1つのパス項目にまとめて出力します。
+ * その為、エンドポイント数に関わらず、メモリ上に保持するのは断片の位置の索引のみです。
+ * </p>
+ * <p>
+ * 出力はパスの順、パス内はHTTPメソッドの順に並べる為、同じ構成からは同じ文書を出力し、ビルド間の差分を比較できます。
+ * 同じパスとHTTPメソッドのオペレーションが複数ある場合、最初のオペレーションのみを出力します。
+ * </p>
+ * <p>
+ * {@code {name: regex}}形式のテンプレート変数は{@code {name}}としてパスに出力し、正規表現はパスパラメーターの{@code schema.pattern}に出力します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/26
+ * @author kawakicchi
+ */
+public class RESTfulOpenApiWriter extends AbstractDocumentWriter<RESTfulParserEvent> implements RESTfulWriter {
+
+	/** OpenAPIのバージョン */
+	private static final String OPENAPI_VERSION = "3.0.3";
+
+	/** パス項目内のHTTPメソッドの順序 */
+	private static final List<String> METHOD_ORDER = Arrays.asList("get", "put", "post", "delete", "options", "head",
+			"patch", "trace");
+
+	private static final Comparator<Operation> COMPARATOR = new Comparator<Operation>() {
+		@Override
+		public int compare(final Operation o1, final Operation o2) {
+			return METHOD_ORDER.indexOf(o1.method) - METHOD_ORDER.indexOf(o2.method);
+		}
+	};
+
+	private final String title;
+	private final File spoolFile;
+	private final OutputStream spool;
+	private long spoolSize;
+	/** パス毎のオペレーションの断片の索引 */
+	private final Map<String, List<Operation>> paths;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param file 出力先ファイル
+	 * @param title 文書のタイトル（{@code info.title}）
+	 * @throws IOException 出力先または一時ファイルを開けなかった場合
+	 */
+	public RESTfulOpenApiWriter(final File file, final String title) throws IOException {
+		super(file, StandardCharsets.UTF_8);
+		this.title = title;
+		File tmpFile = null;
+		OutputStream out = null;
+		try {
+			tmpFile = File.createTempFile("openapi", ".spool");
+			// close()が呼ばれずに終了した場合も一時ファイルを残さない
+			tmpFile.deleteOnExit();
+			out = new BufferedOutputStream(new FileOutputStream(tmpFile), 64 * 1024);
+		} finally {
+			if (null == out) {
+				if (null != tmpFile) {
+					tmpFile.delete();
+				}
+				try {
+					discard();
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				}
+			}
+		}
+		spoolFile = tmpFile;
+		spool = out;
+		spoolSize = 0;
+		paths = new TreeMap<String, List<Operation>>();
+	}
+
+	@Override
+	protected void writeHeader(final Writer writer) throws IOException {
+		writer.write("{\n");
+		writer.write("  \"openapi\" : \"" + OPENAPI_VERSION + "\",\n");
+		writer.write("  \"info\" : { \"title\" : ");
+		RESTfulJsonWriter.writeString(writer, title);
+		writer.write(", \"version\" : \"1.0.0\" },\n");
+	}
+
+	@Override
+	protected void writeEvent(final Writer writer, final RESTfulParserEvent event) throws IOException {
+		MethodData data = event.getMethodData();
+		Map<String, String> patterns = new HashMap<String, String>();
+		String path = toOpenApiPath(data.getPath(), patterns);
+		List<Operation> operations = paths.get(path);
+		for (String methodType : data.getMethodTypes()) {
+			String method = methodType.toLowerCase(Locale.ENGLISH);
+			if (null == operations) {
+				operations = new ArrayList<Operation>(2);
+				paths.put(path, operations);
+			} else if (contains(operations, method)) {
+				System.err.println("Skip duplicate operation " + methodType + " " + path + " : " + data.getClassName() + "#"
+						+ data.getMethodName());
+				continue;
+			}
+
+			StringWriter fragment = new StringWriter();
+			writeOperation(fragment, method, data, patterns);
+			byte[] bytes = fragment.toString().getBytes(StandardCharsets.UTF_8);
+			spool.write(bytes);
+			operations.add(new Operation(method, spoolSize, bytes.length));
+			spoolSize += bytes.length;
+		}
+	}
+
+	@Override
+	protected void writeFooter(final Writer writer) throws IOException {
+		try {
+			spool.close();
+			writer.write("  \"paths\" : {");
+			FileChannel channel = FileChannel.open(spoolFile.toPath(), StandardOpenOption.READ);
+			try {
+				ByteBuffer buffer = ByteBuffer.allocate(4096);
+				boolean firstPath = true;
+				for (Map.Entry<String, List<Operation>> entry : paths.entrySet()) {
+					writer.write(firstPath ? "\n    " : ",\n    ");
+					RESTfulJsonWriter.writeString(writer, entry.getKey());
+					writer.write(" : {\n");
+
+					List<Operation> operations = entry.getValue();
+					Collections.sort(operations, COMPARATOR);
+					for (int i = 0; i < operations.size(); i++) {
+						Operation operation = operations.get(i);
+						if (buffer.capacity() < operation.length) {
+							buffer = ByteBuffer.allocate(operation.length);
+						}
+						buffer.clear();
+						buffer.limit(operation.length);
+						while (buffer.hasRemaining()) {
+							if (-1 == channel.read(buffer, operation.offset + buffer.position())) {
+								throw new IOException("Truncated spool file.");
+							}
+						}
+						writer.write(new String(buffer.array(), 0, operation.length, StandardCharsets.UTF_8));
+						writer.write((i < operations.size() - 1) ? ",\n" : "\n");
+					}
+					writer.write("    }");
+					firstPath = false;
+				}
+			} finally {
+				channel.close();
+			}
+			writer.write(paths.isEmpty() ? "}\n}\n" : "\n  }\n}\n");
+		} finally {
+			spoolFile.delete();
+		}
+	}
+
+	private static boolean contains(final List<Operation> operations, final String method) {
+		for (Operation operation : operations) {
+			if (operation.method.equals(method)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * JAX-RSのパステンプレートをOpenAPIのパスに変換する。
+	 * 
+	 * <p>
+	 * {@code {name: regex}}形式のテンプレート変数は{@code {name}}とし、正規表現を変数名をキーとして格納します。
+	 * 正規表現は{@code {}}を含む場合がある為、対応する括弧までを1つの変数とします。
+	 * </p>
+	 * 
+	 * @param path JAX-RSのパス
+	 * @param patterns 変数名毎の正規表現の格納先
+	 * @return OpenAPIのパス
+	 */
+	static String toOpenApiPath(final String path, final Map<String, String> patterns) {
+		StringBuilder s = new StringBuilder(path.length());
+		int i = 0;
+		while (i < path.length()) {
+			char c = path.charAt(i);
+			if ('{' != c) {
+				s.append(c);
+				i++;
+				continue;
+			}
+
+			int depth = 0;
+			int end = i;
+			for (; end < path.length(); end++) {
+				char d = path.charAt(end);
+				if ('{' == d) {
+					depth++;
+				} else if ('}' == d && 0 == --depth) {
+					break;
+				}
+			}
+			if (end == path.length()) {
+				// 括弧が閉じていない場合はそのまま出力する
+				s.append(path, i, end);
+				break;
+			}
+
+			String template = path.substring(i + 1, end);
+			int colon = template.indexOf(':');
+			String name = ((-1 == colon) ? template : template.substring(0, colon)).trim();
+			if (-1 != colon) {
+				patterns.put(name, template.substring(colon + 1).trim());
+			}
+			s.append('{').append(name).append('}');
+			i = end + 1;
+		}
+		return s.toString();
+	}
+
+	private static void writeOperation(final Writer writer, final String method, final MethodData data,
+			final Map<String, String> patterns) throws IOException {
+		writer.write("      \"" + method + "\" : {\n");
+		writer.write("        \"x-java-method\" : ");
+		RESTfulJsonWriter.writeString(writer, data.getClassName() + "#" + data.getMethodName());
+		writer.write(",\n");
+
+		if (!data.getParameters().isEmpty()) {
+			writer.write("        \"parameters\" : [");
+			boolean first = true;
+			for (ParameterData parameter : data.getParameters()) {
+				writer.write(first ? "\n          { \"name\" : " : ",\n          { \"name\" : ");
+				RESTfulJsonWriter.writeString(writer, parameter.getName());
+				writer.write(", \"in\" : \"" + parameter.getIn() + "\"");
+				// パスパラメーターは必須
+				writer.write(", \"required\" : " + ParameterData.PATH.equals(parameter.getIn()));
+				writer.write(", \"schema\" : ");
+				String pattern = ParameterData.PATH.equals(parameter.getIn()) ? patterns.get(parameter.getName()) : null;
+				if (null == pattern) {
+					writeSchema(writer, parameter.getType());
+				} else {
+					StringWriter schema = new StringWriter();
+					writeSchema(schema, parameter.getType());
+					String s = schema.toString();
+					// 閉じ括弧の前にpatternを追加する
+					writer.write("{ }".equals(s) ? "{" : s.substring(0, s.length() - 2) + ",");
+					writer.write(" \"pattern\" : ");
+					RESTfulJsonWriter.writeString(writer, pattern);
+					writer.write(" }");
+				}
+				writer.write(" }");
+				first = false;
+			}
+			writer.write("\n        ],\n");
+		}
+
+		if (!data.getRequestType().isEmpty()) {
+			writer.write("        \"requestBody\" : { \"content\" : ");
+			writeContent(writer, data.getConsumes(), data.getRequestType());
+			writer.write(" },\n");
+		}
+
+		writer.write("        \"responses\" : {\n");
+		if (data.getResponseType().isEmpty()) {
+			writer.write("          \"204\" : { \"description\" : \"No Content\" }\n");
+		} else {
+			writer.write("          \"200\" : { \"description\" : \"OK\", \"content\" : ");
+			writeContent(writer, data.getProduces(), data.getResponseType());
+			writer.write(" }\n");
+		}
+		writer.write("        }\n");
+		writer.write("      }");
+	}
+
+	private static void writeContent(final Writer writer, final Collection<String> mediaTypes, final String type)
+			throws IOException {
+		Collection<String> types = mediaTypes.isEmpty() ? Collections.singleton("*/*") : mediaTypes;
+		writer.write("{ ");
+		boolean first = true;
+		for (String mediaType : types) {
+			if (!first) {
+				writer.write(", ");
+			}
+			RESTfulJsonWriter.writeString(writer, mediaType);
+			writer.write(" : { \"schema\" : ");
+			writeSchema(writer, type);
+			writer.write(" }");
+			first = false;
+		}
+		writer.write(" }");
+	}
+
+	/**
+	 * Javaの型に対応するスキーマを出力する。
+	 * 
+	 * <p>
+	 * 型引数は記述子から取得できない為、コレクションの要素のスキーマは出力しません。
+	 * 対応しないクラスは{@code x-java-type}にクラス名を出力します。
+	 * </p>
+	 * 
+	 * @param writer ライター
+	 * @param type Javaの型名
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	static void writeSchema(final Writer writer, final String type) throws IOException {
+		if (type.endsWith("[]")) {
+			String component = type.substring(0, type.length() - 2);
+			if ("byte".equals(component)) {
+				writer.write("{ \"type\" : \"string\", \"format\" : \"binary\" }");
+			} else {
+				writer.write("{ \"type\" : \"array\", \"items\" : ");
+				writeSchema(writer, component);
+				writer.write(" }");
+			}
+			return;
+		}
+		switch (type) {
+		case "byte":
+		case "short":
+		case "int":
+		case "java.lang.Byte":
+		case "java.lang.Short":
+		case "java.lang.Integer":
+			writer.write("{ \"type\" : \"integer\", \"format\" : \"int32\" }");
+			break;
+		case "long":
+		case "java.lang.Long":
+		case "java.math.BigInteger":
+			writer.write("{ \"type\" : \"integer\", \"format\" : \"int64\" }");
+			break;
+		case "float":
+		case "java.lang.Float":
+			writer.write("{ \"type\" : \"number\", \"format\" : \"float\" }");
+			break;
+		case "double":
+		case "java.lang.Double":
+		case "java.math.BigDecimal":
+			writer.write("{ \"type\" : \"number\", \"format\" : \"double\" }");
+			break;
+		case "boolean":
+		case "java.lang.Boolean":
+			writer.write("{ \"type\" : \"boolean\" }");
+			break;
+		case "char":
+		case "java.lang.Character":
+		case "java.lang.String":
+			writer.write("{ \"type\" : \"string\" }");
+			break;
+		case "java.util.Date":
+		case "java.util.Calendar":
+			writer.write("{ \"type\" : \"string\", \"format\" : \"date-time\" }");
+			break;
+		case "java.util.Collection":
+		case "java.util.List":
+		case "java.util.Set":
+		case "java.util.SortedSet":
+			writer.write("{ \"type\" : \"array\", \"items\" : { } }");
+			break;
+		case "java.lang.Object":
+		case "javax.ws.rs.core.Response":
+			writer.write("{ }");
+			break;
+		default:
+			writer.write("{ \"type\" : \"object\", \"x-java-type\" : ");
+			RESTfulJsonWriter.writeString(writer, type);
+			writer.write(" }");
+			break;
+		}
+	}
+
+	/**
+	 * このクラスは、一時ファイル内のオペレーションの断片の位置を保持するクラスです。
+	 */
+	private static final class Operation {
+
+		private final String method;
+		private final long offset;
+		private final int length;
+
+		private Operation(final String method, final long offset, final int length) {
+			this.method = method;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+}
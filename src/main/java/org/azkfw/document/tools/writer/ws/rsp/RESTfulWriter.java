@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.ws.rsp;
+
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParserEvent;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParserListener;
+import org.azkfw.document.tools.writer.DocumentWriter;
+
+/**
+ * このインターフェースは、JAX-RS構成を出力するライターを定義する為のインターフェースです。
+ * 
+ * <p>
+ * リソースメソッドは検出した順に逐次出力し、{@link #close()}で出力を完了します。
+ * エンドポイント一覧の形式では、フッターにエンドポイント数とクラスあたりの解析時間を出力します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/25
+ * @author kawakicchi
+ */
+public interface RESTfulWriter extends DocumentWriter<RESTfulParserEvent>, RESTfulParserListener {
+
+}
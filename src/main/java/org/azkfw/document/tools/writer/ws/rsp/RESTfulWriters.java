@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.ws.rsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParser;
+
+/**
+ * このクラスは、{@link RESTfulWriter}を生成するクラスです。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/25
+ * @author kawakicchi
+ */
+public final class RESTfulWriters {
+
+	private RESTfulWriters() {
+	}
+
+	/**
+	 * 出力先ファイルの拡張子に対応するライターを生成する。
+	 * 
+	 * <p>
+	 * 対応する拡張子は次の通りです。
+	 * <ul>
+	 * <li>{@code openapi.json}（例: {@code api.openapi.json}） : {@link RESTfulOpenApiWriter}</li>
+	 * <li>{@code .json} : {@link RESTfulJsonWriter}</li>
+	 * <li>{@code .yaml}, {@code .yml} : {@link RESTfulYamlWriter}</li>
+	 * <li>上記以外 : {@link RESTfulExcelWriter}</li>
+	 * </ul>
+	 * </p>
+	 * 
+	 * @param file 出力先ファイル
+	 * @param parser フッターに出力する統計を取得するパーサー
+	 * @return ライター
+	 * @throws IOException 出力先を開けなかった場合
+	 */
+	public static RESTfulWriter newInstance(final File file, final RESTfulParser parser) throws IOException {
+		String name = file.getName().toLowerCase(Locale.ENGLISH);
+		if (name.endsWith("openapi.json")) {
+			return new RESTfulOpenApiWriter(file, "JAX-RS");
+		} else if (name.endsWith(".json")) {
+			return new RESTfulJsonWriter(file, parser);
+		} else if (name.endsWith(".yaml") || name.endsWith(".yml")) {
+			return new RESTfulYamlWriter(file, parser);
+		}
+		return new RESTfulExcelWriter(file, parser);
+	}
+
+	/**
+	 * 1クラスあたりの解析時間を取得する。
+	 * 
+	 * @param parser パーサー
+	 * @return 時間（ミリ秒）。解析したクラスがない場合は0
+	 */
+	static double getAnalyzeTimePerClass(final RESTfulParser parser) {
+		long count = parser.getAnalyzedClassCount();
+		return (0 == count) ? 0.0 : parser.getAnalyzeTime() / 1000000.0 / count;
+	}
+}
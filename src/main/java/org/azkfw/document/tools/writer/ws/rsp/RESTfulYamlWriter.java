@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.document.tools.writer.ws.rsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.azkfw.document.tools.parser.ws.rsp.MethodData;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParser;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParserEvent;
+import org.azkfw.document.tools.writer.AbstractDocumentWriter;
+
+/**
+ * このクラスは、JAX-RS構成をYAMLのエンドポイント一覧で出力するクラスです。
+ * 
+ * <p>
+ * 出力する項目は{@link RESTfulJsonWriter}と同じです。文字列はJSONと同じ二重引用符の形式で出力します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/24
+ * @author kawakicchi
+ */
+public class RESTfulYamlWriter extends AbstractDocumentWriter<RESTfulParserEvent> implements RESTfulWriter {
+
+	private final RESTfulParser parser;
+	private long countEndpoint;
+
+	public RESTfulYamlWriter(final File file, final RESTfulParser parser) throws IOException {
+		super(file, StandardCharsets.UTF_8);
+		this.parser = parser;
+		countEndpoint = 0;
+	}
+
+	@Override
+	protected void writeHeader(final Writer writer) throws IOException {
+		writer.write("endpoints:");
+	}
+
+	@Override
+	protected void writeEvent(final Writer writer, final RESTfulParserEvent event) throws IOException {
+		MethodData data = event.getMethodData();
+		writer.write("\n  - path: ");
+		RESTfulJsonWriter.writeString(writer, data.getPath());
+		writer.write("\n    methods: ");
+		RESTfulJsonWriter.writeArray(writer, data.getMethodTypes());
+		writer.write("\n    consumes: ");
+		RESTfulJsonWriter.writeArray(writer, data.getConsumes());
+		writer.write("\n    produces: ");
+		RESTfulJsonWriter.writeArray(writer, data.getProduces());
+		writer.write("\n    class: ");
+		RESTfulJsonWriter.writeString(writer, data.getClassName());
+		writer.write("\n    method: ");
+		RESTfulJsonWriter.writeString(writer, data.getMethodName());
+		countEndpoint++;
+	}
+
+	@Override
+	protected void writeFooter(final Writer writer) throws IOException {
+		writer.write((0 == countEndpoint) ? " []\n" : "\n");
+		writer.write("metrics:\n");
+		writer.write(String.format("  endpointCount: %d\n", countEndpoint));
+		writer.write(String.format("  classCount: %d\n", parser.getAnalyzedClassCount()));
+		writer.write(String.format(Locale.ENGLISH, "  timePerClassMillis: %.3f\n", RESTfulWriters.getAnalyzeTimePerClass(parser)));
+	}
+
+}
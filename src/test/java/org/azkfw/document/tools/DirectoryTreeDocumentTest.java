@@ -0,0 +1,144 @@
+package org.azkfw.document.tools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * {@link DirectoryTreeDocument}のテストクラスです。
+ */
+public class DirectoryTreeDocumentTest extends TestCase {
+
+	private File root;
+	private File file;
+
+	@Override
+	protected void setUp() throws IOException {
+		root = Files.createTempDirectory("dt").toFile();
+		for (int i = 0; i < 5; i++) {
+			File dir = new File(root, "d" + i);
+			for (int j = 0; j < 4; j++) {
+				File sub = new File(dir, "s" + j);
+				assertTrue(sub.mkdirs());
+				for (int k = 0; k < 3; k++) {
+					assertTrue(new File(sub, "f" + k + ".txt").createNewFile());
+				}
+			}
+		}
+		file = File.createTempFile("tree", ".xlsx");
+	}
+
+	@Override
+	protected void tearDown() {
+		delete(root);
+		file.delete();
+	}
+
+	public void testRollover() throws IOException {
+		DirectoryTreeDocument doc = new DirectoryTreeDocument();
+		doc.setMergePrefix(true);
+		doc.setMaxRows(20);
+		assertTrue(doc.create(root, file));
+
+		XSSFWorkbook wb = read();
+		int rows = 0;
+		for (int i = 0; i < wb.getNumberOfSheets(); i++) {
+			Sheet sheet = wb.getSheetAt(i);
+			assertTrue(sheet.getLastRowNum() < 20);
+			rows += sheet.getLastRowNum() + 1;
+		}
+		assertEquals("ディレクトリ構成", wb.getSheetName(0));
+		assertEquals("ディレクトリ構成 (2)", wb.getSheetName(1));
+		// 祖先の行を繰り返す分、全体の行数は要素数より多くなる
+		assertTrue(rows > 1 + 5 * (1 + 4 * 4));
+
+		// 2シート目は、祖先の行に続けてd1/s0/f0.txtから出力する
+		Sheet sheet = wb.getSheetAt(1);
+		assertEquals("■" + root.getName(), sheet.getRow(0).getCell(0).getStringCellValue());
+		assertEquals("├■d1", sheet.getRow(1).getCell(0).getStringCellValue());
+		assertEquals("│├■s0", sheet.getRow(2).getCell(0).getStringCellValue());
+		assertEquals("││├□f0.txt", sheet.getRow(3).getCell(0).getStringCellValue());
+	}
+
+	public void testStreamingAggregate() throws IOException {
+		DirectoryTreeDocument doc = new DirectoryTreeDocument();
+		doc.setStreaming(true);
+		doc.setCompact(true);
+		doc.setAggregation(true);
+		doc.setMaxRows(20);
+		assertTrue(doc.create(root, file));
+
+		XSSFWorkbook wb = read();
+		int aggregates = 0;
+		int aggregateSheets = 0;
+		for (int i = 0; i < wb.getNumberOfSheets(); i++) {
+			Sheet sheet = wb.getSheetAt(i);
+			assertTrue(sheet.getLastRowNum() < 20);
+			if (wb.getSheetName(i).startsWith("ディレクトリ集計")) {
+				assertEquals("パス", sheet.getRow(0).getCell(0).getStringCellValue());
+				aggregates += sheet.getLastRowNum();
+				aggregateSheets++;
+			}
+		}
+		assertEquals(1 + 5 * (1 + 4), aggregates);
+		assertEquals(2, aggregateSheets);
+	}
+
+	public void testSharedStringCount() throws IOException {
+		DirectoryTreeDocument doc = new DirectoryTreeDocument();
+		doc.setCompact(true);
+		assertTrue(doc.create(root, file));
+
+		XSSFWorkbook wb = read();
+		int cells = 0;
+		for (int i = 0; i < wb.getNumberOfSheets(); i++) {
+			for (Row row : wb.getSheetAt(i)) {
+				for (Cell cell : row) {
+					if (Cell.CELL_TYPE_STRING == cell.getCellType()) {
+						cells++;
+					}
+				}
+			}
+		}
+		// 記号のセルも共有文字列の参照数に含める
+		assertEquals(cells, wb.getSharedStringSource().getCount());
+	}
+
+	public void testMonospaceFont() throws IOException {
+		DirectoryTreeDocument doc = new DirectoryTreeDocument();
+		doc.setMergePrefix(true);
+		doc.setMonospaceFont("Courier New");
+		assertTrue(doc.create(root, file));
+
+		XSSFWorkbook wb = read();
+		Cell cell = wb.getSheetAt(0).getRow(1).getCell(0);
+		assertEquals("Courier New", wb.getFontAt(cell.getCellStyle().getFontIndex()).getFontName());
+	}
+
+	private XSSFWorkbook read() throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			return new XSSFWorkbook(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	private static void delete(final File file) {
+		File[] children = file.listFiles();
+		if (null != children) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
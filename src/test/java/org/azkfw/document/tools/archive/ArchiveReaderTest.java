@@ -0,0 +1,165 @@
+package org.azkfw.document.tools.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link ArchiveReader}のテストクラスです。
+ */
+public class ArchiveReaderTest extends TestCase {
+
+	private static final byte[] STORED_DATA = "stored entry".getBytes();
+	private static final byte[] DEFLATED_DATA = new byte[10000];
+	private static final byte[] DEFLATED_NAME = "dir/deflated.bin".getBytes();
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+		for (int i = 0; i < DEFLATED_DATA.length; i++) {
+			DEFLATED_DATA[i] = (byte) (i % 7);
+		}
+
+		file = File.createTempFile("archive", ".jar");
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+		try {
+			out.putNextEntry(new ZipEntry("dir/"));
+			out.closeEntry();
+
+			ZipEntry stored = new ZipEntry("dir/stored.txt");
+			CRC32 crc = new CRC32();
+			crc.update(STORED_DATA);
+			stored.setMethod(ZipEntry.STORED);
+			stored.setSize(STORED_DATA.length);
+			stored.setCrc(crc.getValue());
+			out.putNextEntry(stored);
+			out.write(STORED_DATA);
+			out.closeEntry();
+
+			out.putNextEntry(new ZipEntry("dir/deflated.bin"));
+			out.write(DEFLATED_DATA);
+			out.closeEntry();
+		} finally {
+			out.close();
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		file.delete();
+	}
+
+	public void testRead() throws IOException {
+		ArchiveReader reader = ArchiveReader.open(file);
+		try {
+			assertEquals(3, reader.size());
+			assertEquals(-1, reader.indexOf("none"));
+
+			int dir = reader.indexOf("dir/");
+			assertTrue(reader.isDirectory(dir));
+
+			int stored = reader.indexOf("dir/stored.txt");
+			assertEquals(ArchiveReader.STORED, reader.getMethod(stored));
+			assertEquals("dir/stored.txt", reader.getName(stored));
+			assertTrue(reader.startsWith(stored, "dir/".getBytes()));
+			assertTrue(reader.endsWith(stored, ".txt".getBytes()));
+			assertEquals(new String(STORED_DATA), new String(toByteArray(reader.read(stored))));
+
+			int deflated = reader.indexOf("dir/deflated.bin");
+			assertEquals(ArchiveReader.DEFLATED, reader.getMethod(deflated));
+			assertEquals(DEFLATED_DATA.length, reader.getSize(deflated));
+			byte[] data = toByteArray(reader.read(deflated));
+			assertEquals(DEFLATED_DATA.length, data.length);
+			for (int i = 0; i < data.length; i++) {
+				assertEquals(DEFLATED_DATA[i], data[i]);
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	public void testNested() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ZipOutputStream out = new ZipOutputStream(bytes);
+		out.putNextEntry(new ZipEntry("a.txt"));
+		out.write(STORED_DATA);
+		out.closeEntry();
+		out.close();
+
+		ArchiveReader reader = new ArchiveReader(ByteBuffer.wrap(bytes.toByteArray()));
+		assertEquals(new String(STORED_DATA), new String(toByteArray(reader.read(reader.indexOf("a.txt")))));
+		reader.close();
+	}
+
+	public void testTruncated() throws IOException {
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		ByteBuffer b = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		// セントラルディレクトリの圧縮サイズを半分にする
+		int central = lastIndexOf(bytes, DEFLATED_NAME) - 46;
+		b.putInt(central + 20, b.getInt(central + 20) / 2);
+
+		assertReadFails(bytes);
+	}
+
+	public void testCorrupt() throws IOException {
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		ByteBuffer b = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		int central = lastIndexOf(bytes, DEFLATED_NAME) - 46;
+		int header = b.getInt(central + 42);
+		int data = header + 30 + (b.getShort(header + 26) & 0xFFFF) + (b.getShort(header + 28) & 0xFFFF);
+		int compressedSize = b.getInt(central + 20);
+		for (int i = data + compressedSize / 4; i < data + compressedSize * 3 / 4; i++) {
+			bytes[i] ^= 0x55;
+		}
+
+		assertReadFails(bytes);
+	}
+
+	public void testInvalid() {
+		try {
+			new ArchiveReader(ByteBuffer.wrap(new byte[100]));
+			fail();
+		} catch (IOException ex) {
+		}
+	}
+
+	private static void assertReadFails(final byte[] bytes) throws IOException {
+		ArchiveReader reader = new ArchiveReader(ByteBuffer.wrap(bytes));
+		try {
+			reader.read(reader.indexOf("dir/deflated.bin"));
+			fail();
+		} catch (IOException ex) {
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static int lastIndexOf(final byte[] bytes, final byte[] target) {
+		for (int i = bytes.length - target.length; i >= 0; i--) {
+			boolean match = true;
+			for (int j = 0; j < target.length && match; j++) {
+				match = (bytes[i + j] == target[j]);
+			}
+			if (match) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static byte[] toByteArray(final ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,194 @@
+package org.azkfw.document.tools.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link AbstractDocumentParser}のテストクラスです。
+ */
+public class AbstractDocumentParserTest extends TestCase {
+
+	public void testAsynchronous() {
+		CountParser parser = new CountParser();
+		parser.setAsynchronous(4);
+		final List<Integer> events = new ArrayList<Integer>();
+		final List<Thread> threads = new ArrayList<Thread>();
+		parser.addListener(new CountListener() {
+			@Override
+			public void documentParserCallback(final Integer event) {
+				events.add(event);
+				threads.add(Thread.currentThread());
+			}
+		});
+		parser.parse(Integer.valueOf(1000));
+
+		assertEquals(1000, events.size());
+		for (int i = 0; i < events.size(); i++) {
+			assertEquals(i, events.get(i).intValue());
+		}
+		assertNotSame(Thread.currentThread(), threads.get(0));
+	}
+
+	public void testBatch() {
+		CountParser parser = new CountParser();
+		parser.setBatchSize(64);
+		final List<List<Integer>> batches = new ArrayList<List<Integer>>();
+		parser.addBatchListener(new DocumentParserBatchListener<Integer>() {
+			@Override
+			public void documentParserBatchCallback(final List<Integer> events) {
+				batches.add(events);
+			}
+		});
+		final List<Integer> events = new ArrayList<Integer>();
+		CountListener listener = new CountListener() {
+			@Override
+			public void documentParserCallback(final Integer event) {
+				events.add(event);
+			}
+		};
+		parser.addListener(listener);
+		parser.parse(Integer.valueOf(1000));
+
+		assertEquals(16, batches.size());
+		assertEquals(64, batches.get(0).size());
+		assertEquals(1000 - 15 * 64, batches.get(15).size());
+		assertEquals(Integer.valueOf(64), batches.get(1).get(0));
+		assertEquals(1000, events.size());
+		try {
+			batches.get(0).clear();
+			fail();
+		} catch (UnsupportedOperationException ex) {
+		}
+
+		parser.removeListener(listener);
+		parser.setAsynchronous(2);
+		parser.parse(Integer.valueOf(100));
+		assertEquals(16 + 2, batches.size());
+		assertEquals(1000, events.size());
+	}
+
+	public void testBackPressure() {
+		final CountDownLatch latch = new CountDownLatch(1);
+		CountListener listener = new CountListener() {
+			@Override
+			public void documentParserCallback(final Integer event) {
+				try {
+					latch.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+
+		CountParser parser = new CountParser();
+		parser.setAsynchronous(1);
+		parser.setBackPressure(DocumentParserBackPressure.DROP);
+		parser.addListener(listener);
+		release(latch);
+		parser.parse(Integer.valueOf(100));
+		assertTrue(0 < parser.getDroppedCount());
+
+		final CountDownLatch latch2 = new CountDownLatch(1);
+		parser = new CountParser();
+		parser.setAsynchronous(1);
+		parser.setBackPressure(DocumentParserBackPressure.ABORT);
+		parser.addListener(new CountListener() {
+			@Override
+			public void documentParserCallback(final Integer event) {
+				try {
+					latch2.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		// 中断後も通知待ちのイベントの通知を待つ為、待機を解除する
+		release(latch2);
+		try {
+			parser.parse(Integer.valueOf(100));
+			fail();
+		} catch (IllegalStateException ex) {
+			assertEquals("Listener queue is full.", ex.getMessage());
+		}
+	}
+
+	public void testListenerFailure() {
+		CountParser parser = new CountParser();
+		parser.setAsynchronous(4);
+		parser.addListener(new CountListener() {
+			@Override
+			public void documentParserCallback(final Integer event) {
+				if (10 == event.intValue()) {
+					throw new UnsupportedOperationException();
+				}
+			}
+		});
+		try {
+			parser.parse(Integer.valueOf(1000));
+			fail();
+		} catch (IllegalStateException ex) {
+			assertTrue(ex.getCause() instanceof UnsupportedOperationException);
+		} catch (UnsupportedOperationException ex) {
+			// 解析が先に終了した場合
+		}
+	}
+
+	public void testListenerError() {
+		CountParser parser = new CountParser();
+		parser.setAsynchronous(2);
+		parser.addListener(new CountListener() {
+			@Override
+			public void documentParserCallback(final Integer event) {
+				if (10 == event.intValue()) {
+					throw new AssertionError("listener");
+				}
+			}
+		});
+		// 通知用のスレッドが終了せずにキューを読み捨てる為、解析は待機せずに終了する
+		try {
+			parser.parse(Integer.valueOf(1000));
+			fail();
+		} catch (AssertionError ex) {
+			assertEquals("listener", ex.getMessage());
+		}
+	}
+
+	private static void release(final CountDownLatch latch) {
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				latch.countDown();
+			}
+		};
+		thread.start();
+	}
+
+	private interface CountListener extends DocumentParserListener<Integer> {
+	}
+
+	private static class CountParser extends AbstractDocumentParser<Integer, Integer, CountListener> {
+
+		@Override
+		protected void doInitialize() {
+		}
+
+		@Override
+		protected void doParse(final Integer document) {
+			for (int i = 0; i < document.intValue(); i++) {
+				callListener(Integer.valueOf(i));
+			}
+		}
+
+		@Override
+		protected void doRelease() {
+		}
+	}
+}
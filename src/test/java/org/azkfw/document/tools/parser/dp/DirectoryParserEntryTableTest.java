@@ -0,0 +1,94 @@
+package org.azkfw.document.tools.parser.dp;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link DirectoryParserEntryTable}のテストクラスです。
+ */
+public class DirectoryParserEntryTableTest extends TestCase {
+
+	public void testSort() {
+		Random random = new Random(1);
+		DirectoryParserEntryTable table = new DirectoryParserEntryTable(1);
+		List<String> directories = new ArrayList<String>();
+		List<String> files = new ArrayList<String>();
+		for (int i = 0; i < 1000; i++) {
+			StringBuilder name = new StringBuilder();
+			int length = 1 + random.nextInt(12);
+			for (int j = 0; j < length; j++) {
+				name.append((char) ('A' + random.nextInt(60)));
+			}
+			boolean directory = random.nextBoolean();
+			table.add(name.toString(), new Attributes(directory, i));
+			(directory ? directories : files).add(name.toString());
+		}
+		Collections.sort(directories);
+		Collections.sort(files);
+		table.sort();
+
+		assertEquals(1000, table.size());
+		for (int i = 0; i < directories.size(); i++) {
+			assertEquals(directories.get(i), table.getName(i));
+			assertTrue(table.getAttributes(i).isDirectory());
+		}
+		for (int i = 0; i < files.size(); i++) {
+			int index = directories.size() + i;
+			assertEquals(files.get(i), table.getName(index));
+			assertTrue(table.getAttributes(index).isRegularFile());
+		}
+	}
+
+	private static class Attributes implements BasicFileAttributes {
+
+		private final boolean directory;
+		private final long size;
+
+		private Attributes(final boolean directory, final long size) {
+			this.directory = directory;
+			this.size = size;
+		}
+
+		public FileTime lastModifiedTime() {
+			return FileTime.fromMillis(size * 1000);
+		}
+
+		public FileTime lastAccessTime() {
+			return lastModifiedTime();
+		}
+
+		public FileTime creationTime() {
+			return lastModifiedTime();
+		}
+
+		public boolean isRegularFile() {
+			return !directory;
+		}
+
+		public boolean isDirectory() {
+			return directory;
+		}
+
+		public boolean isSymbolicLink() {
+			return false;
+		}
+
+		public boolean isOther() {
+			return false;
+		}
+
+		public long size() {
+			return size;
+		}
+
+		public Object fileKey() {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package org.azkfw.document.tools.parser.dp;
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link DirectoryParserFileInfo}のテストクラスです。
+ */
+public class DirectoryParserFileInfoTest extends TestCase {
+
+	public void testPrefix() {
+		DirectoryParserDecorator decorator = new DirectoryParserPlainDecorator();
+		DirectoryParserLevelStack levels = new DirectoryParserLevelStack();
+
+		assertEquals("", new DirectoryParserFileInfo(new File("root"), levels, decorator).getPrefix());
+
+		levels.push(false);
+		levels.push(true);
+		levels.push(false);
+		DirectoryParserFileInfo info = new DirectoryParserFileInfo(new File("a"), levels, decorator);
+		levels.pop();
+		levels.push(true);
+
+		// 生成時点の階層を保持する
+		assertEquals(3, info.getDepth());
+		assertFalse(info.isLast(3));
+		assertEquals("│　├", info.getPrefix());
+		assertEquals("│　└", new DirectoryParserFileInfo(new File("b"), levels, decorator).getPrefix());
+	}
+
+	public void testDeepLevels() {
+		DirectoryParserLevelStack levels = new DirectoryParserLevelStack();
+		for (int i = 0; i < 200; i++) {
+			levels.push(0 == i % 3);
+		}
+		DirectoryParserFileInfo info = new DirectoryParserFileInfo(new File("deep"), levels, new DirectoryParserPlainDecorator());
+
+		assertEquals(200, info.getDepth());
+		for (int level = 1; level <= 200; level++) {
+			assertEquals(0 == (level - 1) % 3, info.isLast(level));
+		}
+		assertEquals(200, info.getPrefix().length());
+	}
+}
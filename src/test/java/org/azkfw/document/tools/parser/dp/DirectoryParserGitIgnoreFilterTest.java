@@ -0,0 +1,48 @@
+package org.azkfw.document.tools.parser.dp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link DirectoryParserGitIgnoreFilter}のテストクラスです。
+ */
+public class DirectoryParserGitIgnoreFilterTest extends TestCase {
+
+	public void testAccept() throws IOException {
+		File root = Files.createTempDirectory("gitignore").toFile();
+		File sub = new File(root, "sub");
+		assertTrue(sub.mkdir());
+		Charset charset = Charset.forName("UTF-8");
+		Files.write(new File(root, ".gitignore").toPath(),
+				Arrays.asList("# comment", "*.log", "!keep.log", "build/", "/top.txt", "docs/**/*.tmp"), charset);
+		Files.write(new File(sub, ".gitignore").toPath(), Arrays.asList("*.txt", "!ok.txt"), charset);
+		try {
+			DirectoryParserFilter filter = new DirectoryParserGitIgnoreFilter(root);
+
+			assertFalse(filter.accept(Paths.get("a.log"), false, 1));
+			assertTrue(filter.accept(Paths.get("keep.log"), false, 1));
+			assertFalse(filter.accept(Paths.get("build"), true, 1));
+			assertTrue(filter.accept(Paths.get("build"), false, 1));
+			assertFalse(filter.accept(Paths.get("sub", "build"), true, 2));
+			assertFalse(filter.accept(Paths.get("top.txt"), false, 1));
+			assertFalse(filter.accept(Paths.get("sub", "top.txt"), false, 2));
+			assertTrue(filter.accept(Paths.get("sub", "ok.txt"), false, 2));
+			assertTrue(filter.accept(Paths.get("other", "top.txt"), false, 2));
+			assertFalse(filter.accept(Paths.get("docs", "c.tmp"), false, 2));
+			assertFalse(filter.accept(Paths.get("docs", "a", "b", "c.tmp"), false, 4));
+			assertTrue(filter.accept(Paths.get("other", "c.tmp"), false, 2));
+			assertFalse(filter.accept(Paths.get(".git"), true, 1));
+		} finally {
+			new File(sub, ".gitignore").delete();
+			sub.delete();
+			new File(root, ".gitignore").delete();
+			root.delete();
+		}
+	}
+}
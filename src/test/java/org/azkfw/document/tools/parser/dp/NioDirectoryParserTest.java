@@ -0,0 +1,272 @@
+package org.azkfw.document.tools.parser.dp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link NioDirectoryParser}のテストクラスです。
+ */
+public class NioDirectoryParserTest extends TestCase {
+
+	private File root;
+
+	@Override
+	protected void setUp() throws IOException {
+		root = Files.createTempDirectory("dp").toFile();
+		for (int i = 0; i < 5; i++) {
+			File dir = new File(root, "d" + i);
+			for (int j = 0; j < 4; j++) {
+				File sub = new File(dir, "s" + j);
+				assertTrue(sub.mkdirs());
+				for (int k = 0; k < 3; k++) {
+					assertTrue(new File(sub, "f" + k + ".txt").createNewFile());
+				}
+			}
+			assertTrue(new File(dir, "a.txt").createNewFile());
+		}
+		assertTrue(new File(root, "z.txt").createNewFile());
+	}
+
+	@Override
+	protected void tearDown() {
+		delete(root);
+	}
+
+	public void testParse() {
+		List<String> lines = parse(new NioDirectoryParser());
+
+		assertEquals(1 + 5 * (1 + 4 * (1 + 3) + 1) + 1, lines.size());
+		assertEquals("├d0", lines.get(1));
+		assertEquals("│├s0", lines.get(2));
+		assertEquals("││└f2.txt", lines.get(5));
+		assertEquals("│└a.txt", lines.get(18));
+		assertEquals("└z.txt", lines.get(lines.size() - 1));
+		assertEquals(parse(new BasicDirectoryParser()), lines);
+	}
+
+	public void testParallel() {
+		NioDirectoryParser parser = new NioDirectoryParser();
+		parser.setParallelism(4);
+		parser.setMaxInFlightListings(2);
+
+		assertEquals(parse(new NioDirectoryParser()), parse(parser));
+	}
+
+	public void testFilter() {
+		DirectoryParserPatternFilter filter = new DirectoryParserPatternFilter();
+		filter.addExclude("d1");
+		filter.addExclude("regex:.*s[12]");
+		filter.setMaxDepth(2);
+
+		NioDirectoryParser parser = new NioDirectoryParser();
+		parser.addFilter(filter);
+		List<String> lines = parse(parser);
+
+		assertEquals(1 + 4 * 4 + 1, lines.size());
+		assertEquals("├d0", lines.get(1));
+		assertEquals("│├s0", lines.get(2));
+		assertEquals("│├s3", lines.get(3));
+		assertEquals("│└a.txt", lines.get(4));
+		assertEquals("├d2", lines.get(5));
+		assertEquals("│└a.txt", lines.get(16));
+
+		BasicDirectoryParser basic = new BasicDirectoryParser();
+		basic.addFilter(filter);
+		assertEquals(lines, parse(basic));
+	}
+
+	public void testSummary() {
+		NioDirectoryParser parser = new NioDirectoryParser();
+		parser.setMaxChildren(2);
+		parser.setSummaryDepth(2);
+		List<String> lines = parse(parser);
+
+		assertEquals(1 + 2 * (1 + 2 * 2 + 1) + 1, lines.size());
+		assertEquals("├d0", lines.get(1));
+		assertEquals("│├s0", lines.get(2));
+		assertEquals("││└… 3 files (0 B)", lines.get(3));
+		// 省略したディレクトリとファイルは分けて数え、サイズはファイルのみの合計
+		assertEquals("│└… and 2 more directories and 1 more file (0 B)", lines.get(6));
+		assertEquals("└… and 3 more directories and 1 more file (0 B)", lines.get(lines.size() - 1));
+	}
+
+	public void testUnsorted() {
+		NioDirectoryParser parser = new NioDirectoryParser();
+		parser.setSorted(false);
+		List<String> lines = parse(parser);
+
+		assertEquals(1 + 5 * (1 + 4 * (1 + 3) + 1) + 1, lines.size());
+		assertTrue(lines.get(lines.size() - 1).startsWith("└"));
+
+		List<String> expected = paths(new NioDirectoryParser());
+		List<String> actual = paths(parser);
+		Collections.sort(expected);
+		Collections.sort(actual);
+		assertEquals(expected, actual);
+	}
+
+	public void testAggregation() throws IOException {
+		Files.write(new File(root, "z.txt").toPath(), "abc".getBytes("UTF-8"));
+		Files.write(new File(root, "d0/a.txt").toPath(), "abc".getBytes("UTF-8"));
+
+		NioDirectoryParser parser = new NioDirectoryParser();
+		parser.setAggregation(true);
+		List<String> aggregates = aggregate(parser);
+
+		assertEquals(1 + 5 * (1 + 4), aggregates.size());
+		assertEquals("d0/s0 0 3", aggregates.get(0));
+		assertEquals("d0 3 13", aggregates.get(4));
+		assertEquals(" 6 66", aggregates.get(aggregates.size() - 1));
+
+		BasicDirectoryParser basic = new BasicDirectoryParser();
+		basic.setAggregation(true);
+		assertEquals(aggregates, aggregate(basic));
+	}
+
+	public void testSnapshot() throws IOException {
+		// 列挙した時刻と同一時刻内の更新日時は再利用されない為、過去の日時にする
+		long past = System.currentTimeMillis() - 60000;
+		setLastModified(root, past);
+
+		// 空のファイルは空のスナップショットとする
+		File file = File.createTempFile("snapshot", ".dat");
+		try {
+			DirectoryParserSnapshot snapshot = DirectoryParserSnapshot.load(file);
+			NioDirectoryParser parser = new NioDirectoryParser();
+			parser.setSnapshot(snapshot);
+			List<String> lines = parse(parser);
+			assertEquals(parse(new NioDirectoryParser()), lines);
+			assertEquals(1 + 5 * (1 + 4), snapshot.getListedCount());
+			assertEquals(0, snapshot.getReusedCount());
+			snapshot.save(file);
+
+			snapshot = DirectoryParserSnapshot.load(file);
+			parser = new NioDirectoryParser();
+			parser.setSnapshot(snapshot);
+			assertEquals(lines, parse(parser));
+			assertEquals(0, snapshot.getListedCount());
+			assertEquals(1 + 5 * (1 + 4), snapshot.getReusedCount());
+			snapshot.save(file);
+
+			assertTrue(new File(root, "d1/s2/new.txt").createNewFile());
+			snapshot = DirectoryParserSnapshot.load(file);
+			parser = new NioDirectoryParser();
+			parser.setSnapshot(snapshot);
+			lines = parse(parser);
+			assertEquals(parse(new NioDirectoryParser()), lines);
+			assertEquals(1 + 5 * (1 + 4 * (1 + 3) + 1) + 1 + 1, lines.size());
+			assertEquals(1, snapshot.getListedCount());
+			assertEquals(5 * (1 + 4), snapshot.getReusedCount());
+		} finally {
+			file.delete();
+		}
+	}
+
+	public void testSnapshotAttributes() throws IOException {
+		long past = System.currentTimeMillis() - 60000;
+		setLastModified(root, past);
+
+		File file = File.createTempFile("snapshot", ".dat");
+		try {
+			DirectoryParserSnapshot snapshot = DirectoryParserSnapshot.load(file);
+			NioDirectoryParser parser = new NioDirectoryParser();
+			parser.setSnapshot(snapshot);
+			parser.setAggregation(true);
+			aggregate(parser);
+			snapshot.save(file);
+
+			// ディレクトリの更新日時を変えずにファイルのサイズを変更する
+			File a = new File(root, "d1/a.txt");
+			Files.write(a.toPath(), new byte[1000]);
+			assertTrue(a.setLastModified(past));
+			assertTrue(a.getParentFile().setLastModified(past));
+
+			snapshot = DirectoryParserSnapshot.load(file);
+			parser = new NioDirectoryParser();
+			parser.setSnapshot(snapshot);
+			parser.setAggregation(true);
+			List<String> aggregates = aggregate(parser);
+			assertEquals(0, snapshot.getListedCount());
+
+			NioDirectoryParser full = new NioDirectoryParser();
+			full.setAggregation(true);
+			assertEquals(aggregate(full), aggregates);
+			assertTrue(aggregates.contains("d1 1000 13"));
+
+			// 別のルートの走査には使用しない
+			snapshot = DirectoryParserSnapshot.load(file);
+			snapshot.validate(new File(root, "d1").toPath());
+			assertEquals(0, snapshot.size());
+			assertNull(snapshot.get(new File("s0").toPath(), past));
+		} finally {
+			file.delete();
+		}
+	}
+
+	private List<String> parse(final DirectoryParser parser) {
+		final List<String> lines = new ArrayList<String>();
+		parser.addListener(new DirectoryParserListener() {
+			@Override
+			public void documentParserCallback(final DirectoryParserEvent event) {
+				DirectoryParserFileInfo info = event.getInfo();
+				lines.add(info.getPrefix() + info.getName());
+			}
+		});
+		parser.parse(root);
+		return lines;
+	}
+
+	private List<String> paths(final DirectoryParser parser) {
+		final List<String> paths = new ArrayList<String>();
+		parser.addListener(new DirectoryParserListener() {
+			@Override
+			public void documentParserCallback(final DirectoryParserEvent event) {
+				paths.add(event.getInfo().getFile().getPath());
+			}
+		});
+		parser.parse(root);
+		return paths;
+	}
+
+	private List<String> aggregate(final DirectoryParser parser) {
+		final List<String> aggregates = new ArrayList<String>();
+		parser.addListener(new DirectoryParserListener() {
+			@Override
+			public void documentParserCallback(final DirectoryParserEvent event) {
+				DirectoryParserAggregate aggregate = event.getAggregate();
+				if (null != aggregate) {
+					String path = root.toPath().relativize(event.getInfo().getFile().toPath()).toString().replace('\\', '/');
+					aggregates.add(path + " " + aggregate.getSize() + " " + aggregate.getFileCount());
+				}
+			}
+		});
+		parser.parse(root);
+		return aggregates;
+	}
+
+	private static void setLastModified(final File file, final long time) {
+		File[] files = file.listFiles();
+		if (null != files) {
+			for (File f : files) {
+				setLastModified(f, time);
+			}
+		}
+		assertTrue(file.setLastModified(time));
+	}
+
+	private static void delete(final File file) {
+		File[] files = file.listFiles();
+		if (null != files) {
+			for (File f : files) {
+				delete(f);
+			}
+		}
+		file.delete();
+	}
+}
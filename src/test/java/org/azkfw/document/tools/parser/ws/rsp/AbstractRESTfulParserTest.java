@@ -0,0 +1,81 @@
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link AbstractRESTfulParser}のテストクラスです。
+ */
+public class AbstractRESTfulParserTest extends TestCase {
+
+	public void testParallelOrder() {
+		List<String> classNames = new ArrayList<String>();
+		for (int i = 0; i < 500; i++) {
+			classNames.add("sample.Resource" + i);
+		}
+
+		List<String> sequential = parse(classNames, 1);
+		List<String> parallel = parse(classNames, 4);
+
+		// 並列解析でも通知はクラス名の一覧の順
+		assertEquals(1000, sequential.size());
+		assertEquals(sequential, parallel);
+	}
+
+	private static List<String> parse(final List<String> classNames, final int parallelism) {
+		final List<String> events = new ArrayList<String>();
+		TestParser parser = new TestParser(classNames);
+		parser.setParallelism(parallelism);
+		parser.addListener(new RESTfulParserListener() {
+			@Override
+			public void documentParserCallback(final RESTfulParserEvent event) {
+				MethodData methodData = event.getMethodData();
+				events.add(methodData.getClassName() + "#" + methodData.getMethodName());
+			}
+		});
+		parser.parse(new File("."));
+		return events;
+	}
+
+	private static class TestParser extends AbstractRESTfulParser {
+
+		private final List<String> classNames;
+
+		private TestParser(final List<String> classNames) {
+			this.classNames = classNames;
+		}
+
+		@Override
+		protected void doInitialize() {
+		}
+
+		@Override
+		protected void doParse(final File document) {
+			analyze(classNames, new ClassAnalyzer() {
+				@Override
+				public List<MethodData> analyze(final String className) throws Exception {
+					// 後のクラスほど早く終わるようにし、完了順を一覧の順と異ならせる
+					int index = Integer.parseInt(className.substring("sample.Resource".length()));
+					if (0 == index % 64) {
+						Thread.sleep((classNames.size() - index) / 64);
+					}
+					List<MethodData> result = new ArrayList<MethodData>();
+					for (String methodName : new String[] { "get", "put" }) {
+						MethodData methodData = new MethodData();
+						methodData.setClassName(className);
+						methodData.setMethodName(methodName);
+						result.add(methodData);
+					}
+					return result;
+				}
+			});
+		}
+
+		@Override
+		protected void doRelease() {
+		}
+	}
+}
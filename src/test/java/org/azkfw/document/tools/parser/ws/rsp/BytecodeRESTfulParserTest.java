@@ -0,0 +1,92 @@
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link BytecodeRESTfulParser}のテストクラスです。
+ */
+public class BytecodeRESTfulParserTest extends TestCase {
+
+	private File file;
+
+	@Override
+	protected void setUp() throws IOException {
+		// WEB-INF/lib/sample.jar にSampleResourceを含むwarファイル
+		String name = SampleResource.class.getName().replace('.', '/') + ".class";
+		ByteArrayOutputStream jar = new ByteArrayOutputStream();
+		ZipOutputStream jarOut = new ZipOutputStream(jar);
+		jarOut.putNextEntry(new ZipEntry(name));
+		jarOut.write(toByteArray(SampleResource.class.getResourceAsStream("/" + name)));
+		jarOut.close();
+
+		file = File.createTempFile("sample", ".war");
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+		try {
+			out.putNextEntry(new ZipEntry("WEB-INF/classes/"));
+			out.putNextEntry(new ZipEntry("WEB-INF/lib/sample.jar"));
+			out.write(jar.toByteArray());
+		} finally {
+			out.close();
+		}
+	}
+
+	@Override
+	protected void tearDown() {
+		file.delete();
+	}
+
+	public void testLibraryCache() {
+		RESTfulScanCache cache = new RESTfulScanCache();
+
+		List<String> first = parse(cache);
+		assertEquals(5, first.size());
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		// 2回目はライブラリを解析せずに前回の結果を通知する
+		List<String> second = parse(cache);
+		assertEquals(first, second);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	private List<String> parse(final RESTfulScanCache cache) {
+		final List<String> events = new ArrayList<String>();
+		BytecodeRESTfulParser parser = new BytecodeRESTfulParser();
+		parser.setLibraries("*.jar");
+		parser.setCache(cache);
+		parser.addListener(new RESTfulParserListener() {
+			@Override
+			public void documentParserCallback(final RESTfulParserEvent event) {
+				MethodData methodData = event.getMethodData();
+				events.add(methodData.getPath() + " " + methodData.getClassName() + "#" + methodData.getMethodName());
+			}
+		});
+		parser.parse(file);
+		return events;
+	}
+
+	private static byte[] toByteArray(final InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int size;
+			while (-1 != (size = in.read(buffer))) {
+				out.write(buffer, 0, size);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+}
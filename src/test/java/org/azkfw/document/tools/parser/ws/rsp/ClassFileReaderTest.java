@@ -0,0 +1,136 @@
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link ClassFileReader}のテストクラスです。
+ */
+public class ClassFileReaderTest extends TestCase {
+
+	public void testClassAnnotation() throws IOException {
+		ClassFileReader reader = new ClassFileReader(read(SampleResource.class));
+
+		assertEquals(SampleResource.class.getName(), reader.getClassName());
+		assertEquals("java.lang.Object", reader.getSuperName());
+
+		ClassFileAnnotation path = reader.getAnnotation("Ljavax/ws/rs/Path;");
+		assertNotNull(path);
+		assertEquals("/sample", path.getString("value"));
+
+		String[] produces = reader.getAnnotation("Ljavax/ws/rs/Produces;").getStrings("value");
+		assertEquals(2, produces.length);
+		assertEquals("application/json", produces[0]);
+		assertEquals("application/xml", produces[1]);
+	}
+
+	public void testMethodAnnotation() throws IOException {
+		ClassFileReader reader = new ClassFileReader(read(SampleResource.class));
+
+		ClassFileMethod get = find(reader.getMethods(), "get");
+		assertNotNull(get.getAnnotation("Ljavax/ws/rs/GET;"));
+		assertEquals("{id}", get.getAnnotation("Ljavax/ws/rs/Path;").getString("value"));
+
+		ClassFileMethod helper = find(reader.getMethods(), "helper");
+		assertTrue(helper.getAnnotations().isEmpty());
+	}
+
+	public void testParse() throws IOException {
+		ClassFileSource source = new ClassFileSource() {
+			@Override
+			public List<String> getClassNames() {
+				return Collections.emptyList();
+			}
+
+			@Override
+			public ByteBuffer getClassFile(final String className) {
+				return null;
+			}
+
+			@Override
+			public long getClassFileHash(final String className) {
+				return 0;
+			}
+
+			@Override
+			public ClassFileEntry getClassFileEntry(final String className) {
+				return null;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		List<MethodData> methods = new BytecodeRESTfulParser().doParse(source, new ClassFileReader(read(SampleResource.class)));
+
+		assertEquals(5, methods.size());
+		assertEquals("/sample", methods.get(0).getPath());
+		assertTrue(methods.get(0).getMethodTypes().contains("GET"));
+		assertEquals("/sample/{id}", methods.get(1).getPath());
+		assertTrue(methods.get(2).getConsumes().contains("application/json"));
+		assertEquals("/sample/{id}", methods.get(3).getPath());
+		assertTrue(methods.get(3).getMethodTypes().contains("DELETE"));
+		// 正規表現内の / では分割しない
+		assertEquals("/sample/{id: [0-9]+}/items/{name: [a-z]{2}/[a-z]+}", methods.get(4).getPath());
+
+		List<ParameterData> parameters = methods.get(0).getParameters();
+		assertEquals(2, parameters.size());
+		assertEquals("q", parameters.get(0).getName());
+		assertEquals(ParameterData.QUERY, parameters.get(0).getIn());
+		assertEquals("java.lang.String", parameters.get(0).getType());
+		assertEquals("X-Limit", parameters.get(1).getName());
+		assertEquals(ParameterData.HEADER, parameters.get(1).getIn());
+		assertEquals("int", parameters.get(1).getType());
+		assertEquals("", methods.get(0).getRequestType());
+		assertEquals("java.lang.String", methods.get(0).getResponseType());
+
+		assertEquals(ParameterData.PATH, methods.get(1).getParameters().get(0).getIn());
+		assertEquals("java.lang.String", methods.get(2).getRequestType());
+		assertEquals("", methods.get(2).getResponseType());
+	}
+
+	public void testPrefilter() throws IOException {
+		ClassFilePrefilter prefilter = new ClassFilePrefilter();
+		assertTrue(prefilter.accept(ByteBuffer.wrap(read(SampleResource.class))));
+		assertFalse(prefilter.accept(ByteBuffer.wrap(read(ClassData.class))));
+		assertTrue(new ClassFilePrefilter("Ljava/util/Set;").accept(ByteBuffer.wrap(read(ClassData.class))));
+	}
+
+	public void testInvalidClass() {
+		try {
+			new ClassFileReader(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+			fail();
+		} catch (IOException ex) {
+		}
+	}
+
+	private static ClassFileMethod find(final List<ClassFileMethod> methods, final String name) {
+		for (ClassFileMethod method : methods) {
+			if (name.equals(method.getName())) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	static byte[] read(final Class<?> clazz) throws IOException {
+		InputStream stream = clazz.getResourceAsStream(clazz.getSimpleName() + ".class");
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int size;
+			while (-1 != (size = stream.read(buffer))) {
+				out.write(buffer, 0, size);
+			}
+			return out.toByteArray();
+		} finally {
+			stream.close();
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link RESTfulScanCache}のテストクラスです。
+ */
+public class RESTfulScanCacheTest extends TestCase {
+
+	/** ライブラリのキー（jarファイルのCRC-32、サイズ、解析対象パッケージ） */
+	private static final String LIBRARY_KEY = BytecodeRESTfulParser.getLibraryKey(0x89abcdefL, 4096L, "sample");
+
+	public void testSaveAndLoad() throws IOException {
+		MethodData methodData = new MethodData();
+		methodData.setClassName("sample.Resource");
+		methodData.setPath("/sample/{id}");
+		methodData.setMethodName("get");
+		methodData.addMethodType("GET");
+		methodData.addProduce("application/json");
+
+		RESTfulScanCache cache = new RESTfulScanCache();
+		cache.validate("sig");
+		cache.put("sample.Resource", 1L, Collections.singletonMap("sample.Base", Long.valueOf(2L)), Arrays.asList(methodData));
+		cache.put("sample.Other", 3L, null, null);
+		cache.putLibrary(LIBRARY_KEY, Arrays.asList(methodData));
+
+		File file = File.createTempFile("scan", ".cache");
+		try {
+			cache.save(file);
+			RESTfulScanCache loaded = RESTfulScanCache.load(file);
+			loaded.validate("sig");
+			// 参照するまでは保存対象としない
+			assertEquals(0, loaded.size());
+
+			List<MethodData> methods = loaded.get("sample.Resource", 1L, new HashSource(2L));
+			assertEquals(1, methods.size());
+			assertEquals("sample.Resource", methods.get(0).getClassName());
+			assertEquals("/sample/{id}", methods.get(0).getPath());
+			assertEquals("get", methods.get(0).getMethodName());
+			assertTrue(methods.get(0).getMethodTypes().contains("GET"));
+			assertTrue(methods.get(0).getProduces().contains("application/json"));
+			assertTrue(loaded.get("sample.Other", 3L, new HashSource(0L)).isEmpty());
+			assertEquals(2, loaded.size());
+
+			// 自身または継承元のハッシュ値が異なる場合は無効
+			assertNull(loaded.get("sample.Resource", 9L, new HashSource(2L)));
+			assertNull(loaded.get("sample.Resource", 1L, new HashSource(9L)));
+			assertEquals(2, loaded.getHitCount());
+			assertEquals(2, loaded.getMissCount());
+
+			List<MethodData> libraryMethods = loaded.getLibrary(LIBRARY_KEY);
+			assertEquals(1, libraryMethods.size());
+			assertEquals("sample.Resource", libraryMethods.get(0).getClassName());
+			assertNull(loaded.getLibrary("unknown"));
+
+			// シグネチャが異なる場合は破棄
+			loaded.validate("other");
+			assertEquals(0, loaded.size());
+			assertNull(loaded.getLibrary(LIBRARY_KEY));
+		} finally {
+			file.delete();
+		}
+	}
+
+	public void testLibraryKey() {
+		assertEquals("89abcdef0000000000001000@sample", LIBRARY_KEY);
+		assertEquals("0000000100000000ffffffff", BytecodeRESTfulParser.getLibraryKey(1L, 0xffffffffL, null));
+	}
+
+	public void testRemovedClass() throws IOException {
+		RESTfulScanCache cache = new RESTfulScanCache();
+		cache.validate("sig");
+		cache.put("sample.Kept", 1L, null, null);
+		cache.put("sample.Removed", 2L, null, null);
+		cache.putLibrary("kept", Collections.<MethodData> emptyList());
+		cache.putLibrary("removed", Collections.<MethodData> emptyList());
+
+		File file = File.createTempFile("scan", ".cache");
+		try {
+			cache.save(file);
+
+			// sample.Removedとライブラリremovedが削除された後の解析
+			RESTfulScanCache second = RESTfulScanCache.load(file);
+			second.validate("sig");
+			assertNotNull(second.get("sample.Kept", 1L, new HashSource(0L)));
+			assertNotNull(second.getLibrary("kept"));
+			second.save(file);
+
+			RESTfulScanCache third = RESTfulScanCache.load(file);
+			third.validate("sig");
+			assertNotNull(third.get("sample.Kept", 1L, new HashSource(0L)));
+			assertNull(third.get("sample.Removed", 2L, new HashSource(0L)));
+			assertNotNull(third.getLibrary("kept"));
+			assertNull(third.getLibrary("removed"));
+		} finally {
+			file.delete();
+		}
+	}
+
+	public void testMissingDependency() throws IOException {
+		RESTfulScanCache cache = new RESTfulScanCache();
+		cache.validate("sig");
+		cache.put("sample.Resource", 1L, Collections.singletonMap("sample.Missing", Long.valueOf(-1L)), null);
+
+		assertNotNull(cache.get("sample.Resource", 1L, new HashSource(-1L)));
+		// 存在しなかった継承元が追加された場合は無効
+		assertNull(cache.get("sample.Resource", 1L, new HashSource(5L)));
+	}
+
+	private static class HashSource implements ClassFileSource {
+		private final long hash;
+
+		private HashSource(final long hash) {
+			this.hash = hash;
+		}
+
+		@Override
+		public List<String> getClassNames() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public ByteBuffer getClassFile(final String className) {
+			return null;
+		}
+
+		@Override
+		public long getClassFileHash(final String className) {
+			return hash;
+		}
+
+		@Override
+		public ClassFileEntry getClassFileEntry(final String className) {
+			return new ClassFileEntry(this, className, hash, null);
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
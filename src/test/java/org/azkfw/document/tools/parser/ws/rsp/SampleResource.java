@@ -0,0 +1,55 @@
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+
+/**
+ * テスト用のリソースクラスです。
+ */
+@Path("/sample")
+@Produces({ "application/json", "application/xml" })
+public class SampleResource {
+
+	static {
+		if (Boolean.getBoolean("sample.fail")) {
+			throw new IllegalStateException();
+		}
+	}
+
+	@GET
+	public String list(@QueryParam("q") final String query, @HeaderParam("X-Limit") final int limit) {
+		return null;
+	}
+
+	@GET
+	@Path("{id}")
+	public String get(@PathParam("id") final String id) {
+		return null;
+	}
+
+	@POST
+	@Consumes("application/json")
+	public void create(final String body) {
+	}
+
+	@DELETE
+	@Path("/{id}/")
+	public void delete(@PathParam("id") final String id) {
+	}
+
+	@GET
+	@Path("{id: [0-9]+}/items/{name: [a-z]{2}/[a-z]+}")
+	public String item(@PathParam("id") final long id, @PathParam("name") final String name) {
+		return null;
+	}
+
+	public void helper() {
+	}
+}
@@ -0,0 +1,97 @@
+package org.azkfw.document.tools.parser.ws.rsp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ * {@link WarClassLoader}のテストクラスです。
+ */
+public class WarClassLoaderTest extends TestCase {
+
+	private File file;
+
+	@Override
+	protected void setUp() throws IOException {
+		ByteArrayOutputStream jar = new ByteArrayOutputStream();
+		ZipOutputStream jarOut = new ZipOutputStream(jar);
+		putClass(jarOut, "", ParameterData.class);
+		jarOut.putNextEntry(new ZipEntry("lib.txt"));
+		jarOut.write("lib".getBytes(StandardCharsets.UTF_8));
+		jarOut.close();
+
+		file = File.createTempFile("sample", ".war");
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+		try {
+			putClass(out, "WEB-INF/classes/", SampleResource.class);
+			out.putNextEntry(new ZipEntry("WEB-INF/classes/classes.txt"));
+			out.write("classes".getBytes(StandardCharsets.UTF_8));
+			out.putNextEntry(new ZipEntry("WEB-INF/lib/sample.jar"));
+			out.write(jar.toByteArray());
+		} finally {
+			out.close();
+		}
+	}
+
+	@Override
+	protected void tearDown() {
+		file.delete();
+	}
+
+	public void testLoad() throws IOException, ClassNotFoundException {
+		// 親をブートストラップクラスローダーとし、テストのクラスパスから読み込まないようにする
+		WarClassLoader loader = new WarClassLoader(file, null);
+		try {
+			Class<?> classesClass = loader.loadClass(SampleResource.class.getName());
+			assertSame(loader, classesClass.getClassLoader());
+			assertNotSame(SampleResource.class, classesClass);
+
+			Class<?> libClass = loader.loadClass(ParameterData.class.getName());
+			assertSame(loader, libClass.getClassLoader());
+
+			assertEquals("classes", read(loader.getResource("classes.txt")));
+			assertEquals("lib", read(loader.getResource("lib.txt")));
+			assertNull(loader.getResource("missing.txt"));
+			try {
+				loader.loadClass("sample.Missing");
+				fail();
+			} catch (ClassNotFoundException ex) {
+			}
+		} finally {
+			loader.close();
+		}
+	}
+
+	private static void putClass(final ZipOutputStream out, final String basePath, final Class<?> clazz) throws IOException {
+		String name = clazz.getName().replace('.', '/') + ".class";
+		out.putNextEntry(new ZipEntry(basePath + name));
+		out.write(toByteArray(clazz.getResourceAsStream("/" + name)));
+	}
+
+	private static String read(final URL url) throws IOException {
+		assertNotNull(url);
+		return new String(toByteArray(url.openStream()), StandardCharsets.UTF_8);
+	}
+
+	private static byte[] toByteArray(final InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int size;
+			while (-1 != (size = in.read(buffer))) {
+				out.write(buffer, 0, size);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+}
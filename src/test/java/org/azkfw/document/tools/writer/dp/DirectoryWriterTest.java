@@ -0,0 +1,107 @@
+package org.azkfw.document.tools.writer.dp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.azkfw.document.tools.parser.dp.DirectoryParser;
+import org.azkfw.document.tools.parser.dp.NioDirectoryParser;
+
+/**
+ * {@link DirectoryWriter}のテストクラスです。
+ */
+public class DirectoryWriterTest extends TestCase {
+
+	private File root;
+	private File file;
+
+	@Override
+	protected void setUp() throws IOException {
+		root = Files.createTempDirectory("dw").toFile();
+		File sub = new File(root, "d0/s0");
+		assertTrue(sub.mkdirs());
+		assertTrue(new File(sub, "a,b.txt").createNewFile());
+		assertTrue(new File(root, "d1").mkdir());
+		assertTrue(new File(root, "<z>.txt").createNewFile());
+		file = File.createTempFile("tree", ".tmp");
+	}
+
+	@Override
+	protected void tearDown() {
+		delete(root);
+		file.delete();
+	}
+
+	public void testNewInstance() throws IOException {
+		assertTrue(write("out.txt") instanceof DirectoryTextWriter);
+		assertTrue(write("out.CSV") instanceof DirectoryCsvWriter);
+		assertTrue(write("out.md") instanceof DirectoryMarkdownWriter);
+		assertTrue(write("out.html") instanceof DirectoryHtmlWriter);
+		assertNull(DirectoryWriter.newInstance(new File(file.getParentFile(), "out.xlsx")));
+	}
+
+	public void testText() throws IOException {
+		List<String> lines = read(new DirectoryTextWriter(file));
+
+		assertEquals(root.getPath(), lines.get(0));
+		assertEquals("├d0", lines.get(1));
+		assertEquals("│└s0", lines.get(2));
+		assertEquals("│　└a,b.txt", lines.get(3));
+		assertEquals("├d1", lines.get(4));
+		assertEquals("└<z>.txt", lines.get(5));
+		assertEquals("3 directories, 2 files", lines.get(7));
+	}
+
+	public void testCsv() throws IOException {
+		List<String> lines = read(new DirectoryCsvWriter(file));
+
+		assertEquals(7, lines.size());
+		assertEquals("path,name,type,depth,size,lastModified", lines.get(0));
+		assertTrue(lines.get(4).startsWith("\"" + new File(root, "d0/s0/a,b.txt").getPath() + "\",\"a,b.txt\",file,3,0,"));
+		assertTrue(lines.get(5).startsWith(new File(root, "d1").getPath() + ",d1,directory,1,,"));
+	}
+
+	public void testHtml() throws IOException {
+		List<String> lines = read(new DirectoryHtmlWriter(file));
+
+		int open = 0;
+		int close = 0;
+		for (String line : lines) {
+			open += line.startsWith("<details") ? 1 : 0;
+			close += line.equals("</details>") ? 1 : 0;
+		}
+		assertEquals(4, open);
+		assertEquals(4, close);
+		assertTrue(lines.contains("<div>&lt;z&gt;.txt</div>"));
+	}
+
+	private DirectoryWriter write(final String name) throws IOException {
+		File out = new File(file.getParentFile(), file.getName() + name);
+		DirectoryWriter writer = DirectoryWriter.newInstance(out);
+		writer.close();
+		out.delete();
+		return writer;
+	}
+
+	private List<String> read(final DirectoryWriter writer) throws IOException {
+		DirectoryParser parser = new NioDirectoryParser();
+		parser.addListener(writer);
+		parser.parse(root);
+		writer.close();
+		return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+	}
+
+	private static void delete(final File file) {
+		File[] children = file.listFiles();
+		if (null != children) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
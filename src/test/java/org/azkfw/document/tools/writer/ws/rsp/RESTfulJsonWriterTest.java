@@ -0,0 +1,43 @@
+package org.azkfw.document.tools.writer.ws.rsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.azkfw.document.tools.parser.ws.rsp.BytecodeRESTfulParser;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParser;
+import org.azkfw.document.tools.parser.ws.rsp.SampleResource;
+
+/**
+ * {@link RESTfulJsonWriter}のテストクラスです。
+ */
+public class RESTfulJsonWriterTest extends TestCase {
+
+	public void testWrite() throws IOException, URISyntaxException {
+		File classes = new File(SampleResource.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		File file = File.createTempFile("endpoints", ".json");
+		try {
+			RESTfulParser parser = new BytecodeRESTfulParser();
+			parser.setTargetPackage(SampleResource.class.getName());
+			RESTfulWriter writer = RESTfulWriters.newInstance(file, parser);
+			assertTrue(writer instanceof RESTfulJsonWriter);
+			parser.addListener(writer);
+			parser.parse(classes);
+			writer.close();
+
+			String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+			assertTrue(json.contains("{ \"path\" : \"/sample/{id}\", \"methods\" : [\"GET\"], \"consumes\" : [], "
+					+ "\"produces\" : [\"application/json\", \"application/xml\"], \"class\" : \"" + SampleResource.class.getName()
+					+ "\", \"method\" : \"get\" }"));
+			assertTrue(json.contains("\"consumes\" : [\"application/json\"]"));
+			assertTrue(json.contains("\"endpointCount\" : 5,"));
+			assertTrue(json.contains("\"classCount\" : 1,"));
+		} finally {
+			file.delete();
+		}
+	}
+}
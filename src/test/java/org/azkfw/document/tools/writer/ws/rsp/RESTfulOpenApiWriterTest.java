@@ -0,0 +1,60 @@
+package org.azkfw.document.tools.writer.ws.rsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.azkfw.document.tools.parser.ws.rsp.BasicRESTfulParser;
+import org.azkfw.document.tools.parser.ws.rsp.BytecodeRESTfulParser;
+import org.azkfw.document.tools.parser.ws.rsp.RESTfulParser;
+import org.azkfw.document.tools.parser.ws.rsp.SampleResource;
+
+/**
+ * {@link RESTfulOpenApiWriter}のテストクラスです。
+ */
+public class RESTfulOpenApiWriterTest extends TestCase {
+
+	public void testWrite() throws IOException, URISyntaxException {
+		String json = write(new BytecodeRESTfulParser());
+
+		assertTrue(json.startsWith("{\n  \"openapi\" : \"3.0.3\",\n"));
+		// 同じパスのオペレーションは1つのパス項目にまとめる
+		assertEquals(json.indexOf("\"/sample/{id}\" : {"), json.lastIndexOf("\"/sample/{id}\" : {"));
+		assertTrue(json.indexOf("\"/sample\" : {") < json.indexOf("\"/sample/{id}\" : {"));
+		assertTrue(json.contains("{ \"name\" : \"q\", \"in\" : \"query\", \"required\" : false, \"schema\" : { \"type\" : \"string\" } }"));
+		assertTrue(json.contains("{ \"name\" : \"X-Limit\", \"in\" : \"header\", \"required\" : false, "
+				+ "\"schema\" : { \"type\" : \"integer\", \"format\" : \"int32\" } }"));
+		assertTrue(json.contains("{ \"name\" : \"id\", \"in\" : \"path\", \"required\" : true, \"schema\" : { \"type\" : \"string\" } }"));
+		assertTrue(json.contains("\"requestBody\" : { \"content\" : { \"application/json\" : { \"schema\" : { \"type\" : \"string\" } } } }"));
+		assertTrue(json.contains("\"204\" : { \"description\" : \"No Content\" }"));
+		assertTrue(json.indexOf("\"get\" : {", json.indexOf("/sample/{id}")) < json.indexOf("\"delete\" : {"));
+		// 正規表現のテンプレート変数はパスから除き、patternに出力する
+		assertTrue(json.contains("\"/sample/{id}/items/{name}\" : {"));
+		assertTrue(json.contains("{ \"name\" : \"id\", \"in\" : \"path\", \"required\" : true, "
+				+ "\"schema\" : { \"type\" : \"integer\", \"format\" : \"int64\", \"pattern\" : \"[0-9]+\" } }"));
+		assertTrue(json.contains("{ \"name\" : \"name\", \"in\" : \"path\", \"required\" : true, "
+				+ "\"schema\" : { \"type\" : \"string\", \"pattern\" : \"[a-z]{2}/[a-z]+\" } }"));
+
+		assertEquals(json, write(new BasicRESTfulParser()));
+	}
+
+	private static String write(final RESTfulParser parser) throws IOException, URISyntaxException {
+		File classes = new File(SampleResource.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		File file = File.createTempFile("api", ".openapi.json");
+		try {
+			parser.setTargetPackage(SampleResource.class.getName());
+			RESTfulWriter writer = RESTfulWriters.newInstance(file, parser);
+			assertTrue(writer instanceof RESTfulOpenApiWriter);
+			parser.addListener(writer);
+			parser.parse(classes);
+			writer.close();
+			return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		} finally {
+			file.delete();
+		}
+	}
+}